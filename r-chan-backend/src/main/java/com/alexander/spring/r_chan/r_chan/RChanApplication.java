@@ -2,8 +2,10 @@ package com.alexander.spring.r_chan.r_chan;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RChanApplication {
 
 	public static void main(String[] args) {
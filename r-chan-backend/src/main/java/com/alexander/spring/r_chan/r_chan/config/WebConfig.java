@@ -1,10 +1,71 @@
 package com.alexander.spring.r_chan.r_chan.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.List;
 
 @Configuration
 @EnableSpringDataWebSupport(pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO)
-public class WebConfig{
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(ObjectProvider<ObjectMapper> objectMapperProvider) {
+        this.objectMapper = objectMapperProvider.getIfAvailable(ObjectMapper::new);
+    }
+
+    //Spring ya registra conversores CBOR/Smile con mappers por defecto si los formatos están en el classpath:
+    //se quitan y se agregan los configurados como el JSON. Van al final: JSON sigue siendo el formato por defecto
+    //y los binarios solo se usan con Accept explícito
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof JacksonCborHttpMessageConverter
+                || converter instanceof JacksonSmileHttpMessageConverter);
+        converters.addAll(binaryConverters(objectMapper));
+    }
+
+    public static List<HttpMessageConverter<?>> binaryConverters(ObjectMapper json) {
+        return List.of(new JacksonCborHttpMessageConverter(cborMapper(json)),
+                new JacksonSmileHttpMessageConverter(smileMapper(json)));
+    }
+
+    public static CBORMapper cborMapper(ObjectMapper json) {
+        return sameConfigAs(json, CBORMapper.builder());
+    }
+
+    public static SmileMapper smileMapper(ObjectMapper json) {
+        return sameConfigAs(json, SmileMapper.builder());
+    }
 
-}
\ No newline at end of file
+    //Mismos módulos y features que el mapper JSON de la aplicación (spring.jackson.*): un DTO se ve igual en los tres formatos
+    private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> M sameConfigAs(ObjectMapper json, B builder) {
+        builder.addModules(json.registeredModules());
+        for (MapperFeature feature : MapperFeature.values()) {
+            builder.configure(feature, json.isEnabled(feature));
+        }
+        for (SerializationFeature feature : SerializationFeature.values()) {
+            builder.configure(feature, json.isEnabled(feature));
+        }
+        for (DeserializationFeature feature : DeserializationFeature.values()) {
+            builder.configure(feature, json.isEnabled(feature));
+        }
+        for (DateTimeFeature feature : DateTimeFeature.values()) {
+            builder.configure(feature, json.isEnabled(feature));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.alexander.spring.r_chan.r_chan.controllers;
+
+import com.alexander.spring.r_chan.r_chan.services.publications.archive.ThreadArchiveService;
+import com.alexander.spring.r_chan.r_chan.services.publications.cache.RenderedResponseCache;
+import com.alexander.spring.r_chan.r_chan.services.publications.versioning.ContentVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+//Hilos podados: el JSON ya comprimido se envía directamente desde disco, sin consultas
+@RestController
+@RequestMapping("/api/archive")
+public class ArchiveController {
+
+    @Autowired
+    private ThreadArchiveService threadArchiveService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @GetMapping
+    public ResponseEntity<Resource> findArchivedThread(
+            @RequestParam(value = "id") UUID postId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) throws IOException {
+        Path file = threadArchiveService.findArchived(postId);
+
+        //El ETag sale del propio archivo: si se reemplaza, los clientes y las cachés intermedias lo notan al revalidar
+        String eTag = "W/\"archive-" + postId + "-" + Files.getLastModifiedTime(file).toMillis()
+                + "-" + Files.size(file) + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(1)).cachePublic();
+        if (contentVersionService.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (RenderedResponseCache.acceptsGzip(request)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(Files.size(file))
+                    .body(new FileSystemResource(file));
+        }
+
+        //Clientes sin gzip: se descomprime al vuelo mientras se envía
+        return builder.body(new InputStreamResource(new GZIPInputStream(Files.newInputStream(file))));
+    }
+}
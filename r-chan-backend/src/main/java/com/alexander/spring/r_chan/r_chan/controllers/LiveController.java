@@ -0,0 +1,46 @@
+package com.alexander.spring.r_chan.r_chan.controllers;
+
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.services.publications.live.LiveUpdateHub;
+import com.alexander.spring.r_chan.r_chan.services.publications.versioning.ContentVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+//Avisos en vivo por Server-Sent Events en lugar de re-consultar el hilo o la sección
+@RestController
+@RequestMapping("/api/live")
+public class LiveController {
+
+    @Autowired
+    private LiveUpdateHub liveUpdateHub;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @GetMapping(value = "/section", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeSection(@RequestParam SectionEnum sectionType) {
+        SseEmitter emitter = liveUpdateHub.subscribeSection(sectionType, contentVersionService.sectionVersion(sectionType));
+        return toResponse(emitter);
+    }
+
+    @GetMapping(value = "/thread", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeThread(@RequestParam(value = "id") UUID postId) {
+        SseEmitter emitter = liveUpdateHub.subscribeThread(postId, contentVersionService.threadVersion(postId));
+        return toResponse(emitter);
+    }
+
+    //Sin emisor el nodo está lleno; el cliente puede seguir consultando con ETag
+    private ResponseEntity<SseEmitter> toResponse(SseEmitter emitter) {
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        //Evita que un proxy acumule el stream antes de enviarlo
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+}
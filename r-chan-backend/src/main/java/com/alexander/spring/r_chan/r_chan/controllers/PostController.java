@@ -1,20 +1,36 @@
 package com.alexander.spring.r_chan.r_chan.controllers;
 
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SliceDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SparseFields;
 import com.alexander.spring.r_chan.r_chan.dtos.publications.CreatePostDTO;
-import com.alexander.spring.r_chan.r_chan.dtos.publications.PostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.HotThreadDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.ViewedThreadDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostSummaryDTO;
 import com.alexander.spring.r_chan.r_chan.entity.Post;
 import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.exceptions.InvalidPaginationException;
+import com.alexander.spring.r_chan.r_chan.repository.PostFieldsRepository;
 import com.alexander.spring.r_chan.r_chan.repository.SectionRepository;
 import com.alexander.spring.r_chan.r_chan.services.storage.FileStorageService;
 import com.alexander.spring.r_chan.r_chan.services.publications.PostService;
+import com.alexander.spring.r_chan.r_chan.services.publications.cache.RenderedResponseCache;
+import com.alexander.spring.r_chan.r_chan.services.publications.hot.HotThreadService;
+import com.alexander.spring.r_chan.r_chan.services.publications.views.ThreadViewService;
 import com.alexander.spring.r_chan.r_chan.services.publications.sections.SectionService;
+import com.alexander.spring.r_chan.r_chan.services.publications.versioning.ContentVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -24,9 +40,11 @@ import tools.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/post")
@@ -47,20 +65,136 @@ public class PostController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private HotThreadService hotThreadService;
+
+    @Autowired
+    private ThreadViewService threadViewService;
+
+    @Autowired
+    private RenderedResponseCache renderedResponseCache;
+
+    @Value("${app.post.batch_max_ids:100}")
+    private int maxBatchSize;
+
+    @Value("${app.feed.max_reply_previews:5}")
+    private int maxReplyPreviews;
+
+    //Las primeras páginas de cada feed se sirven desde bytes ya serializados y comprimidos
     @GetMapping
-    public ResponseEntity<Page<PostDTO>> findAll(
+    public ResponseEntity<?> findAll(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "lastBumpedAt") String sort,
+            @RequestParam(required = false) SectionEnum sectionType, //Cambiar a sectionType
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "0") int includeReplies,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        //La versión se lee antes de consultar; si cambia durante la consulta el cliente solo revalida de más
+        Supplier<String> versionETag = () -> sectionType != null
+                ? contentVersionService.sectionETag(sectionType)
+                : contentVersionService.feedETag();
+        String eTag = versionETag.get();
+        if (contentVersionService.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sort).descending());
+        List<String> selected = SparseFields.parse(fields, PostFieldsRepository.FIELDS);
+        //Vista de índice: cada hilo con sus últimas respuestas, hasta el tope configurado
+        int replies = Math.min(Math.max(includeReplies, 0), maxReplyPreviews);
+        if (selected != null && replies > 0) {
+            throw new InvalidPaginationException("fields and includeReplies cannot be combined");
+        }
+        String key = "feed:" + (sectionType != null ? sectionType : "ALL") + ":" + page + ":" + size + ":" + sort
+                + (selected != null ? ":" + String.join(",", selected) : "")
+                + (replies > 0 ? ":r" + replies : "");
+
+        //PagedModel es la misma forma que produce la serialización VIA_DTO de Spring Data
+        Supplier<Object> body = () -> {
+            if (selected != null) {
+                return new PagedModel<>(postService.findApprovedFields(sectionType, selected, pageable));
+            }
+            if (replies > 0) {
+                return new PagedModel<>(postService.findIndex(sectionType, pageable, replies));
+            }
+            if (sectionType != null) {
+                return new PagedModel<>(postService.findBySectionType(sectionType, pageable)); //Usar el método correcto
+            }
+            return new PagedModel<>(postService.findAllApproved(pageable));
+        };
+
+        if (!renderedResponseCache.servesJson(request)) {
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).body(body.get());
+        }
+
+        renderedResponseCache.write(request, response, key, versionETag, renderedResponseCache.isHotPage(pageable), body);
+        return null;
+    }
+
+    //Scroll infinito por número de página sin totales: evita el COUNT de cada petición
+    @GetMapping("/slice")
+    public ResponseEntity<SliceDTO<PostSummaryDTO>> findAllBySlice(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdDate") String sort,
-            @RequestParam(required = false) SectionEnum sectionType){ //Cambiar a sectionType
+            @RequestParam(defaultValue = "lastBumpedAt") String sort,
+            @RequestParam(required = false) SectionEnum sectionType){
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sort).descending());
 
         if (sectionType != null) {
-            return ResponseEntity.ok(postService.findBySectionType(sectionType, pageable)); //Usar el método correcto
+            return ResponseEntity.ok(postService.sliceBySectionType(sectionType, pageable));
+        }
+
+        return ResponseEntity.ok(postService.sliceAllApproved(pageable));
+    }
+
+    //Paginación por cursor: cada página cuesta lo mismo sin importar la profundidad
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<PostSummaryDTO>> findAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "lastBumpedAt") String sort,
+            @RequestParam(required = false) SectionEnum sectionType){
+
+        if (sectionType != null) {
+            return ResponseEntity.ok(postService.scrollBySectionType(sectionType, sort, cursor, size));
         }
 
-        return ResponseEntity.ok(postService.findAllApproved(pageable));
+        return ResponseEntity.ok(postService.scrollAllApproved(sort, cursor, size));
+    }
+
+    //Ranking precalculado en memoria por un job programado; no consulta RePost en la petición
+    @GetMapping("/hot")
+    public ResponseEntity<List<HotThreadDTO>> findHot(
+            @RequestParam SectionEnum sectionType,
+            @RequestParam(defaultValue = "20") int size){
+        return ResponseEntity.ok(hotThreadService.findHot(sectionType, size));
+    }
+
+    //Más vistos; el ranking se recalcula solo cuando se vuelcan las visitas a la base
+    @GetMapping("/most-viewed")
+    public ResponseEntity<List<ViewedThreadDTO>> findMostViewed(
+            @RequestParam(required = false) SectionEnum sectionType,
+            @RequestParam(defaultValue = "20") int size){
+        return ResponseEntity.ok(threadViewService.findMostViewed(sectionType, size));
+    }
+
+    //Varios posts por id en una sola consulta (citas, hilos seguidos, notificaciones)
+    @GetMapping("/batch")
+    public ResponseEntity<?> findBatch(@RequestParam(value = "ids") List<UUID> ids){
+        if (ids.size() > maxBatchSize) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Too many ids, maximum is " + maxBatchSize);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        return ResponseEntity.ok(postService.findBatch(ids));
     }
 
     @GetMapping("/id")
@@ -68,6 +202,12 @@ public class PostController {
         return ResponseEntity.ok(postService.findById(id));
     }
 
+    //Búsqueda por el número legible (>>1234)
+    @GetMapping("/number")
+    public ResponseEntity<?> findByNumber(@RequestParam(value = "number") long number){
+        return ResponseEntity.ok(postService.findByNumber(number));
+    }
+
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> save(
             @RequestPart(value = "postData") String postDataJson,
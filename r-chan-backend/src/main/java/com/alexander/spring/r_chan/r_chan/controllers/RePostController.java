@@ -1,14 +1,20 @@
 package com.alexander.spring.r_chan.r_chan.controllers;
 
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SliceDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SparseFields;
 import com.alexander.spring.r_chan.r_chan.dtos.publications.CreateRePostDTO;
-import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostSummaryDTO;
 import com.alexander.spring.r_chan.r_chan.entity.Post;
 import com.alexander.spring.r_chan.r_chan.entity.RePost;
 import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.repository.RePostFieldsRepository;
 import com.alexander.spring.r_chan.r_chan.repository.RePostRepository;
 import com.alexander.spring.r_chan.r_chan.services.storage.FileStorageService;
 import com.alexander.spring.r_chan.r_chan.services.publications.PostService;
 import com.alexander.spring.r_chan.r_chan.services.publications.RePostService;
+import com.alexander.spring.r_chan.r_chan.services.publications.versioning.ContentVersionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +22,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,7 +33,6 @@ import tools.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/repost")
@@ -46,36 +53,86 @@ public class RePostController {
     @Autowired
     private RePostRepository rePostRepository;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    //fields=id,parentId,... devuelve solo esas columnas
     @GetMapping
-    public ResponseEntity<Page<RePostDTO>> findAll(
+    public ResponseEntity<Page<?>> findAll(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdDate") String sort) {
+            @RequestParam(defaultValue = "createdDate") String sort,
+            @RequestParam(required = false) String fields) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sort).descending());
+        List<String> selected = SparseFields.parse(fields, RePostFieldsRepository.FIELDS);
+        if (selected != null) {
+            return ResponseEntity.ok(rePostService.findApprovedFields(selected, pageable));
+        }
         return ResponseEntity.ok(rePostService.findAllApproved(pageable));
     }
 
+    //Scroll infinito por número de página sin totales: evita el COUNT de cada petición
+    @GetMapping("/slice")
+    public ResponseEntity<SliceDTO<RePostSummaryDTO>> findAllBySlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdDate") String sort) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sort).descending());
+        return ResponseEntity.ok(rePostService.sliceAllApproved(pageable));
+    }
+
+    //Paginación por cursor: cada página cuesta lo mismo sin importar la profundidad
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<RePostSummaryDTO>> findAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdDate") String sort) {
+        return ResponseEntity.ok(rePostService.scrollAllApproved(sort, cursor, size));
+    }
+
+    //Búsqueda por el número legible (>>1234)
+    @GetMapping("/number")
+    public ResponseEntity<RePostSummaryDTO> findByNumber(@RequestParam(value = "number") long number) {
+        return ResponseEntity.ok(rePostService.findByNumber(number));
+    }
+
     @GetMapping("/post/id")
-    public List<RePostDTO> findByPostId(@RequestParam(value = "id") UUID postId) {
+    public ResponseEntity<List<RePostSummaryDTO>> findByPostId(
+            @RequestParam(value = "id") UUID postId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        //Si el hilo no cambió desde la versión que tiene el cliente, 304 sin consultar la base de datos
+        String eTag = contentVersionService.threadETag(postId);
+        if (contentVersionService.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
+
         //Busca todos los reposts donde el post.id = postId Y approval_status IN (APPROVED, AUTO_APPROVED)
-        List<RePost> reposts = rePostRepository.findByPost_IdAndApprovalStatusIn(
+        List<RePostSummaryDTO> reposts = rePostRepository.findByPost_IdAndApprovalStatusIn(
                 postId,
                 Arrays.asList(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED)
         );
 
         //Si no hay reposts, devuelve una lista vacía, NO lanza excepción
         if (reposts.isEmpty()) {
-            return Collections.emptyList();
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(Collections.emptyList());
         }
 
-        return reposts.stream()
-                .map(RePostDTO::new)
-                .collect(Collectors.toList());
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(reposts);
+    }
+
+    @GetMapping("/post/cursor")
+    public ResponseEntity<CursorPageDTO<RePostSummaryDTO>> findByPostIdByCursor(
+            @RequestParam(value = "id") UUID postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "createdDate") String sort) {
+        return ResponseEntity.ok(rePostService.scrollByPostId(postId, sort, cursor, size));
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> save(@RequestPart(value = "postData") String postDataJson,
-                                  @RequestPart(value = "file", required = false) MultipartFile file){
+                                  @RequestPart(value = "file", required = false) MultipartFile file,
+                                  HttpServletRequest request){
 
         ObjectMapper objectMapper = new ObjectMapper();
         CreateRePostDTO createRePostDTO;
@@ -113,6 +170,6 @@ public class RePostController {
             throw new RuntimeException("Exception during upload",e);
         }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(rePostService.saveRePost(rePost));
+        return ResponseEntity.status(HttpStatus.CREATED).body(rePostService.saveRePost(rePost, request.getRemoteAddr()));
     }
 }
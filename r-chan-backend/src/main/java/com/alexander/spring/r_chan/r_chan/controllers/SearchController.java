@@ -0,0 +1,30 @@
+package com.alexander.spring.r_chan.r_chan.controllers;
+
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.SearchHitDTO;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.services.publications.search.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+//Búsqueda de texto en posts y respuestas aprobados, de más reciente a más antiguo, paginada por cursor
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<SearchHitDTO>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) SectionEnum sectionType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(searchService.search(q, sectionType, cursor, size));
+    }
+}
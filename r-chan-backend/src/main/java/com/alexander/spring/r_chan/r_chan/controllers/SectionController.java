@@ -1,15 +1,26 @@
 package com.alexander.spring.r_chan.r_chan.controllers;
 
 import com.alexander.spring.r_chan.r_chan.dtos.publications.SectionDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.SectionSequencesDTO;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.services.publications.cache.RenderedResponseCache;
+import com.alexander.spring.r_chan.r_chan.services.publications.catalog.CatalogService;
 import com.alexander.spring.r_chan.r_chan.services.publications.sections.SectionService;
+import com.alexander.spring.r_chan.r_chan.services.publications.versioning.ContentVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.UUID;
 
 @RestController
@@ -19,6 +30,15 @@ public class SectionController {
     @Autowired
     private SectionService sectionService;
 
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private RenderedResponseCache renderedResponseCache;
+
     @GetMapping
     public ResponseEntity<Page<SectionDTO>> findAll(
             @RequestParam(defaultValue = "0") int page,
@@ -32,4 +52,44 @@ public class SectionController {
     public ResponseEntity<?> findById(@RequestParam(value = "id") UUID id){
         return ResponseEntity.ok(sectionService.findById(id));
     }
+
+    //Todos los hilos vivos de la sección en un solo payload, versionado con el ETag de la sección
+    @GetMapping("/catalog")
+    public ResponseEntity<?> findCatalog(
+            @RequestParam SectionEnum sectionType,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        String eTag = contentVersionService.sectionETag(sectionType);
+        if (contentVersionService.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        if (!renderedResponseCache.servesJson(request)) {
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT)
+                    .body(catalogService.getCatalog(sectionType));
+        }
+
+        renderedResponseCache.write(request, response, "catalog:" + sectionType,
+                () -> contentVersionService.sectionETag(sectionType), true,
+                () -> catalogService.getCatalog(sectionType));
+        return null;
+    }
+
+    //"¿Hay algo nuevo?": secuencias en memoria de todas las secciones, sin consultar la base de datos
+    @GetMapping("/sequences")
+    public ResponseEntity<SectionSequencesDTO> findSequences(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        //Toda escritura en una sección avanza también el feed, así que su ETag cubre todas las secuencias
+        String eTag = contentVersionService.feedETag();
+        if (contentVersionService.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        SectionSequencesDTO sequences = new SectionSequencesDTO(contentVersionService.epoch(),
+                contentVersionService.feedVersion(), contentVersionService.sectionVersions());
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(sequences);
+    }
 }
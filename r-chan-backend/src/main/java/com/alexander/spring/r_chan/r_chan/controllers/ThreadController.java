@@ -0,0 +1,96 @@
+package com.alexander.spring.r_chan.r_chan.controllers;
+
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.DeltaCursor;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.ThreadDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.ThreadDeltaDTO;
+import com.alexander.spring.r_chan.r_chan.services.publications.cache.RenderedResponseCache;
+import com.alexander.spring.r_chan.r_chan.services.publications.threads.ThreadService;
+import com.alexander.spring.r_chan.r_chan.services.publications.versioning.ContentVersionService;
+import com.alexander.spring.r_chan.r_chan.services.publications.views.ThreadViewService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/thread")
+public class ThreadController {
+
+    @Autowired
+    private ThreadService threadService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private RenderedResponseCache renderedResponseCache;
+
+    @Autowired
+    private ThreadViewService threadViewService;
+
+    //Post y respuestas en una sola petición; cursor y size solo hacen falta en hilos muy largos
+    @GetMapping
+    public ResponseEntity<?> findThread(
+            @RequestParam(value = "id") UUID postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        String eTag = contentVersionService.threadETag(postId);
+        if (contentVersionService.matches(ifNoneMatch, eTag)) {
+            //El cliente recibió el hilo en esta misma versión, y ocultarlo o borrarlo cambia la versión:
+            //sigue visible. "*" no prueba nada, así que no cuenta
+            if (!"*".equals(ifNoneMatch.trim())) {
+                recordView(postId, cursor);
+            }
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        //Solo la vista por defecto (primera página) se guarda; las continuaciones se serializan al vuelo
+        if (!renderedResponseCache.servesJson(request)) {
+            ThreadDTO thread = threadService.findThread(postId, cursor, size);
+            recordView(postId, cursor);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).body(thread);
+        }
+
+        //findThread lanza PostNotFoundException si el hilo no existe o no es público: la visita se cuenta después
+        boolean firstPage = cursor == null && size == null;
+        renderedResponseCache.write(request, response, "thread:" + postId,
+                () -> contentVersionService.threadETag(postId), firstPage,
+                () -> threadService.findThread(postId, cursor, size));
+        recordView(postId, cursor);
+        return null;
+    }
+
+    //Solo la primera página es una visita
+    private void recordView(UUID postId, String cursor) {
+        if (cursor == null) {
+            threadViewService.recordView(postId);
+        }
+    }
+
+    //Polling de un hilo: solo lo nuevo desde el cursor; 304 sin tocar la base si el hilo no cambió
+    @GetMapping("/{id}/since")
+    public ResponseEntity<ThreadDeltaDTO> findRepliesSince(
+            @PathVariable("id") UUID postId,
+            @RequestParam(required = false) String cursor) {
+
+        DeltaCursor after = DeltaCursor.decode(cursor);
+        if (after != null && contentVersionService.epoch().equals(after.getEpoch())
+                && after.getVersion() == contentVersionService.threadVersion(postId)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .body(threadService.findRepliesSince(postId, after));
+    }
+}
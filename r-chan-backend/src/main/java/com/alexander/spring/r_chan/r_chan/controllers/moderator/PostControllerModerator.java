@@ -1,10 +1,12 @@
 package com.alexander.spring.r_chan.r_chan.controllers.moderator;
 
 import com.alexander.spring.r_chan.r_chan.dtos.moderation.ADMINCreatePostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SparseFields;
 import com.alexander.spring.r_chan.r_chan.dtos.publications.PostDTO;
 import com.alexander.spring.r_chan.r_chan.entity.Post;
 import com.alexander.spring.r_chan.r_chan.entity.Section;
 import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.repository.PostFieldsRepository;
 import com.alexander.spring.r_chan.r_chan.services.moderation.logs.ModerationLogService;
 import com.alexander.spring.r_chan.r_chan.services.publications.PostService;
 import com.alexander.spring.r_chan.r_chan.services.publications.sections.SectionService;
@@ -25,6 +27,7 @@ import tools.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -48,12 +51,18 @@ public class PostControllerModerator {
     @Autowired
     private ModerationLogService moderationLogService;
 
+    //fields=id,title,approvalStatus,... devuelve solo esas columnas
     @GetMapping
-    public ResponseEntity<Page<PostDTO>> findAll(
+    public ResponseEntity<Page<?>> findAll(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdDate") String sort) {
+            @RequestParam(defaultValue = "createdDate") String sort,
+            @RequestParam(required = false) String fields) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sort).descending());
+        List<String> selected = SparseFields.parse(fields, PostFieldsRepository.FIELDS);
+        if (selected != null) {
+            return ResponseEntity.ok(postService.findAllFields(selected, pageable));
+        }
         return ResponseEntity.ok(postService.findAll(pageable));
     }
 
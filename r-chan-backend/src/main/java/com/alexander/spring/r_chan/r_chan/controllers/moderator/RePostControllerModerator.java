@@ -8,6 +8,7 @@ import com.alexander.spring.r_chan.r_chan.services.moderation.logs.ModerationLog
 import com.alexander.spring.r_chan.r_chan.services.publications.PostService;
 import com.alexander.spring.r_chan.r_chan.services.publications.RePostService;
 import com.alexander.spring.r_chan.r_chan.services.storage.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -73,7 +74,8 @@ public class RePostControllerModerator {
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> save(@RequestPart(value = "postData") String postDataJson,
-                                  @RequestPart(value = "file", required = false) MultipartFile file){
+                                  @RequestPart(value = "file", required = false) MultipartFile file,
+                                  HttpServletRequest request){
 
         ObjectMapper objectMapper = new ObjectMapper();
         ADMINCreateRePostDTO adminCreateRePostDTO;
@@ -111,7 +113,7 @@ public class RePostControllerModerator {
             throw new RuntimeException("Exception during upload",e);
         }
 
-        RePostDTO savedRePost = rePostService.saveRePost(rePost);
+        RePostDTO savedRePost = rePostService.saveRePost(rePost, request.getRemoteAddr());
 
         //Registrar acción de creación de repost
         Map<String, Object> details = new HashMap<>();
@@ -0,0 +1,35 @@
+package com.alexander.spring.r_chan.r_chan.controllers.moderator.admin;
+
+import com.alexander.spring.r_chan.r_chan.services.publications.search.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/api/search")
+public class SearchControllerAdmin {
+
+    @Autowired
+    private SearchService searchService;
+
+    //Documentos indexados, cambios pendientes de aplicar y duración de la última reconstrucción
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(searchService.stats());
+    }
+
+    //Reconstruye el índice desde MySQL en segundo plano; las búsquedas siguen con el índice anterior
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        if (!searchService.rebuild()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Rebuild already in progress"));
+        }
+        return ResponseEntity.accepted().body(searchService.stats());
+    }
+}
@@ -0,0 +1,54 @@
+package com.alexander.spring.r_chan.r_chan.controllers.moderator.cache;
+
+import com.alexander.spring.r_chan.r_chan.services.publications.cache.RenderedResponseCache;
+import com.alexander.spring.r_chan.r_chan.services.publications.cache.SectionFeedCache;
+import com.alexander.spring.r_chan.r_chan.services.publications.live.LiveUpdateHub;
+import com.alexander.spring.r_chan.r_chan.services.publications.views.ThreadViewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/moderator/api/cache")
+public class CacheControllerModerator {
+
+    @Autowired
+    private SectionFeedCache sectionFeedCache;
+
+    @Autowired
+    private LiveUpdateHub liveUpdateHub;
+
+    @Autowired
+    private RenderedResponseCache renderedResponseCache;
+
+    @Autowired
+    private ThreadViewService threadViewService;
+
+    //Estadísticas de aciertos, fallos y expulsiones de la caché del feed por sección
+    @GetMapping("/feed")
+    public ResponseEntity<Map<String, Object>> getFeedCacheStats() {
+        return ResponseEntity.ok(sectionFeedCache.stats());
+    }
+
+    //Conexiones SSE abiertas y eventos entregados o descartados por clientes lentos
+    @GetMapping("/live")
+    public ResponseEntity<Map<String, Object>> getLiveStats() {
+        return ResponseEntity.ok(liveUpdateHub.stats());
+    }
+
+    //Entradas y bytes de las respuestas ya serializadas, y cuántas se sirvieron comprimidas
+    @GetMapping("/rendered")
+    public ResponseEntity<Map<String, Object>> getRenderedCacheStats() {
+        return ResponseEntity.ok(renderedResponseCache.stats());
+    }
+
+    //Visitas contadas en memoria, ya volcadas a la base y UPDATE usados para volcarlas
+    @GetMapping("/views")
+    public ResponseEntity<Map<String, Object>> getViewCounterStats() {
+        return ResponseEntity.ok(threadViewService.stats());
+    }
+}
@@ -1,6 +1,7 @@
 package com.alexander.spring.r_chan.r_chan.controllers.moderator.log;
 
 import com.alexander.spring.r_chan.r_chan.dtos.moderation.ModerationLogDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SliceDTO;
 import com.alexander.spring.r_chan.r_chan.entity.ModerationLog;
 import com.alexander.spring.r_chan.r_chan.services.moderation.logs.ModerationLogService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,4 +42,14 @@ public class LogControllerModerator {
 
         return ResponseEntity.ok(logDTOs);
     }
+
+    //Igual que el listado anterior pero sin totales; el panel solo necesita saber si hay más
+    @GetMapping("/slice")
+    public ResponseEntity<SliceDTO<ModerationLogDTO>> getModeratorLogsSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        return ResponseEntity.ok(new SliceDTO<>(moderationLogService.getAllLogsSlice(pageable)).map(ModerationLogDTO::new));
+    }
 }
\ No newline at end of file
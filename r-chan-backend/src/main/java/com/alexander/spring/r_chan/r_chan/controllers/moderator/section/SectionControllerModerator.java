@@ -9,11 +9,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -63,6 +65,22 @@ public class SectionControllerModerator {
         return ResponseEntity.ok(sectionService.updateSectionStatus(id, status));
     }
 
+    @PatchMapping("/{id}/bump-limit")
+    public ResponseEntity<?> updateBumpLimit(@PathVariable UUID id, @RequestParam(required = false) Integer bumpLimit) {
+        if (bumpLimit != null && bumpLimit < 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Bump limit must be zero or positive"));
+        }
+        return ResponseEntity.ok(sectionService.updateBumpLimit(id, bumpLimit));
+    }
+
+    @PatchMapping("/{id}/max-threads")
+    public ResponseEntity<?> updateMaxThreads(@PathVariable UUID id, @RequestParam(required = false) Integer maxThreads) {
+        if (maxThreads != null && maxThreads < 1) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Max threads must be positive"));
+        }
+        return ResponseEntity.ok(sectionService.updateMaxThreads(id, maxThreads));
+    }
+
     @PostMapping("/initialize")
     public ResponseEntity<?> initializeSections() {
         return ResponseEntity.ok("Sections initialized");
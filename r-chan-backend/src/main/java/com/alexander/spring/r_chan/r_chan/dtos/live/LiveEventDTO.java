@@ -0,0 +1,21 @@
+package com.alexander.spring.r_chan.r_chan.dtos.live;
+
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+//Aviso de cambio enviado por SSE; el cliente pide el contenido nuevo con los endpoints de lectura
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveEventDTO {
+    private SectionEnum sectionType;
+    private UUID postId;
+    //null en los avisos de post
+    private UUID rePostId;
+    //Versión de la sección o del hilo después del cambio (ver ContentVersionService)
+    private long version;
+}
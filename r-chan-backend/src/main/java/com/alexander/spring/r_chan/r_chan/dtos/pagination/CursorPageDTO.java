@@ -0,0 +1,24 @@
+package com.alexander.spring.r_chan.r_chan.dtos.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    //Token opaco para pedir la siguiente página, null si no hay más resultados
+    private String nextCursor;
+
+    public <R> CursorPageDTO<R> map(Function<? super T, ? extends R> converter) {
+        List<R> converted = content.stream().<R>map(converter).toList();
+        return new CursorPageDTO<>(converted, size, hasNext, nextCursor);
+    }
+}
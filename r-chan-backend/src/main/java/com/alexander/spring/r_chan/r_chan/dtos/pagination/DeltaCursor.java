@@ -0,0 +1,62 @@
+package com.alexander.spring.r_chan.r_chan.dtos.pagination;
+
+import com.alexander.spring.r_chan.r_chan.exceptions.InvalidPaginationException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición de un cliente que sigue un hilo por polling: la versión del hilo que ya vio (con el epoch
+ * del arranque que la emitió) y la marca (updatedDate, id) desde la que pedir respuestas nuevas o recién aprobadas.
+ * Si epoch y versión no cambiaron no hay nada que consultar.
+ */
+@Data
+@AllArgsConstructor
+public class DeltaCursor {
+
+    //Versión desconocida: la siguiente petición siempre consulta (página intermedia de un delta grande)
+    public static final long UNKNOWN_VERSION = -1L;
+    public static final UUID MIN_ID = new UUID(0L, 0L);
+
+    //Tras un reinicio las versiones vuelven a 0: una versión solo vale con el epoch que la emitió
+    private String epoch;
+    private long version;
+    private LocalDateTime updatedDate;
+    private UUID id;
+
+    public String encode() {
+        String raw = epoch + "|" + version + "|" + updatedDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token El token recibido, null o vacío si el cliente todavía no tiene uno.
+     * @return El cursor, o null si no se envió.
+     */
+    public static DeltaCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length == 3) {
+                //Cursor anterior al epoch: se trata como de otro arranque y la siguiente petición consulta
+                return new DeltaCursor(null, Long.parseLong(parts[0]), LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+            }
+            if (parts.length != 4) {
+                throw new InvalidPaginationException("Invalid cursor: " + token);
+            }
+            return new DeltaCursor(parts[0], Long.parseLong(parts[1]), LocalDateTime.parse(parts[2]), UUID.fromString(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPaginationException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.alexander.spring.r_chan.r_chan.dtos.pagination;
+
+import com.alexander.spring.r_chan.r_chan.exceptions.InvalidPaginationException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Posición de una página por cursor (keyset): el valor de la columna de orden y el id
+ * del último elemento devuelto. Se envía al cliente como un token opaco en base64.
+ */
+@Data
+@AllArgsConstructor
+public class FeedCursor {
+
+    public static final String CREATED_DATE = "createdDate";
+    public static final String LAST_BUMPED_AT = "lastBumpedAt";
+
+    //Solo columnas respaldadas por un índice (ver @Table de Post y RePost)
+    public static final Set<String> SORTABLE_FIELDS = Set.of(CREATED_DATE);
+    public static final Set<String> POST_SORTABLE_FIELDS = Set.of(CREATED_DATE, LAST_BUMPED_AT);
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private String sort;
+    private LocalDateTime value;
+    private UUID id;
+
+    public String encode() {
+        String raw = sort + "|" + value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FeedCursor decode(String token, String sort) {
+        return decode(token, sort, SORTABLE_FIELDS);
+    }
+
+    /**
+     * Decodifica un token recibido del cliente.
+     * @param token El token, null o vacío para la primera página.
+     * @param sort El orden solicitado; debe coincidir con el del token.
+     * @param sortableFields Los órdenes que admite el listado.
+     * @return El cursor, o null si es la primera página.
+     */
+    public static FeedCursor decode(String token, String sort, Set<String> sortableFields) {
+        requireSortable(sort, sortableFields);
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !parts[0].equals(sort)) {
+                throw new InvalidPaginationException("Cursor does not match sort: " + sort);
+            }
+            return new FeedCursor(parts[0], LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPaginationException("Invalid cursor: " + token);
+        }
+    }
+
+    public static void requireSortable(String sort) {
+        requireSortable(sort, SORTABLE_FIELDS);
+    }
+
+    public static void requireSortable(String sort, Set<String> sortableFields) {
+        if (!sortableFields.contains(sort)) {
+            throw new InvalidPaginationException("Sort not supported in cursor mode: " + sort);
+        }
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Arma la página a partir de una consulta que pidió size + 1 filas;
+     * la fila extra solo indica que existe una página siguiente.
+     */
+    public static <T> CursorPageDTO<T> toPage(List<T> rows, int size, String sort,
+                                             Function<T, LocalDateTime> valueOf,
+                                             Function<T, UUID> idOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.get(content.size() - 1);
+            nextCursor = new FeedCursor(sort, valueOf.apply(last), idOf.apply(last)).encode();
+        }
+        return new CursorPageDTO<>(content, size, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,32 @@
+package com.alexander.spring.r_chan.r_chan.dtos.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página sin totales: solo indica si existe una página siguiente.
+ * Se obtiene pidiendo size + 1 filas, sin ejecutar el COUNT de un Page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceDTO<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private boolean hasNext;
+
+    public SliceDTO(Slice<T> slice) {
+        this(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+
+    public <R> SliceDTO<R> map(Function<? super T, ? extends R> converter) {
+        List<R> converted = content.stream().<R>map(converter).toList();
+        return new SliceDTO<>(converted, number, size, hasNext);
+    }
+}
@@ -0,0 +1,45 @@
+package com.alexander.spring.r_chan.r_chan.dtos.pagination;
+
+import com.alexander.spring.r_chan.r_chan.exceptions.InvalidPaginationException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parámetro fields= de los listados: los campos que el cliente quiere recibir, separados por comas.
+ * El id siempre se incluye; el orden de la respuesta es el de la petición.
+ */
+public final class SparseFields {
+
+    public static final String ID = "id";
+
+    private SparseFields() {
+    }
+
+    /**
+     * @param fields El valor del parámetro, null o vacío si no se pidió una selección.
+     * @param allowed Los campos que admite el listado.
+     * @return Los campos pedidos sin repetir, o null si se devuelve la vista completa.
+     */
+    public static List<String> parse(String fields, Set<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new InvalidPaginationException("Unknown field: " + name + ". Allowed: " + allowed);
+            }
+            selected.add(name);
+        }
+        return new ArrayList<>(selected);
+    }
+}
@@ -0,0 +1,21 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+//Hilo podado tal como quedó: el post, todas sus respuestas aprobadas y sus backlinks, sin archivos adjuntos
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedThreadDTO {
+    private PostDTO post;
+    private List<RePostSummaryDTO> replies;
+    private Map<UUID, List<BacklinkDTO>> backlinks;
+    private LocalDateTime archivedAt;
+}
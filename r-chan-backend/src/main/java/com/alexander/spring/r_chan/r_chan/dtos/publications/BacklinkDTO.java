@@ -0,0 +1,17 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+//Post o respuesta que cita a otro ("replied by"); threadId permite enlazar citas desde otros hilos
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacklinkDTO {
+    private UUID id;
+    private Long number;
+    private UUID threadId;
+}
@@ -0,0 +1,17 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogDTO {
+    private SectionEnum sectionType;
+    //Hilos vivos en orden de bump (el más reciente primero)
+    private List<PostSummaryDTO> threads;
+}
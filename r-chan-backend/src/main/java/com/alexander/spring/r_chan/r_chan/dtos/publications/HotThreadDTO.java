@@ -0,0 +1,14 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotThreadDTO {
+    private PostSummaryDTO post;
+    //Respuestas recientes con decaimiento exponencial; solo sirve para comparar hilos entre sí
+    private double score;
+}
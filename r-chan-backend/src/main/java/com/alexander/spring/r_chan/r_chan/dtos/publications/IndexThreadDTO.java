@@ -0,0 +1,16 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexThreadDTO {
+    private PostSummaryDTO post;
+    //Últimas respuestas visibles del hilo, de la más antigua a la más reciente
+    private List<RePostSummaryDTO> lastReplies;
+}
@@ -0,0 +1,17 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+//Resultado de una consulta por lista de ids: los posts visibles en el orden pedido y los ids que no se encontraron
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostBatchDTO {
+    private List<PostSummaryDTO> posts;
+    private List<UUID> missing;
+}
@@ -14,6 +14,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class PostDTO {
     private UUID id;
+    private Long number;
     private Section section;
     private String title;
     private String content;
@@ -22,11 +23,15 @@ public class PostDTO {
     private FileStatus fileStatus;
     private ApprovalStatus approvalStatus;
     private Integer replyCount;
+    private Long viewCount;
+    private Integer uniquePosters;
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
 
-    public PostDTO(Post post){
+    //replyCount llega ya calculado (conteo agrupado por página) para no recorrer post.getReposts()
+    public PostDTO(Post post, Integer replyCount){
         this.id = post.getId();
+        this.number = post.getNumber();
         this.section = post.getSection();
         this.title = post.getTitle();
         this.content = post.getContent();
@@ -34,17 +39,10 @@ public class PostDTO {
         this.fileType = post.getFileType();
         this.fileStatus = post.getFileStatus();
         this.approvalStatus = post.getApprovalStatus();
-        this.replyCount = post.getReplyCount();
+        this.replyCount = replyCount != null ? replyCount : 0;
+        this.viewCount = post.getViewCount() != null ? post.getViewCount() : 0L;
+        this.uniquePosters = post.getUniquePosters() != null ? post.getUniquePosters() : 0;
         this.createdDate = post.getCreatedDate();
         this.updatedDate = post.getUpdatedDate();
-
-        if (post.getReposts() != null) {
-            this.replyCount = (int) post.getReposts().stream()
-                    .filter(repost -> repost.getApprovalStatus() == ApprovalStatus.APPROVED ||
-                            repost.getApprovalStatus() == ApprovalStatus.AUTO_APPROVED)
-                    .count();
-        } else {
-            this.replyCount = 0;
-        }
     }
 }
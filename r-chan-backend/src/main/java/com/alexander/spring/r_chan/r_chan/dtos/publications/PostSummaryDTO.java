@@ -0,0 +1,39 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import com.alexander.spring.r_chan.r_chan.enums.FileStatus;
+import com.alexander.spring.r_chan.r_chan.enums.FileType;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//Vista compacta de un post para los listados públicos; el contenido completo está en /api/post/id y /api/thread
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSummaryDTO {
+    private UUID id;
+    private Long number;
+    private SectionEnum sectionType;
+    private String title;
+    private String contentPreview;
+    private String fileUrl;
+    private FileType fileType;
+    private FileStatus fileStatus;
+    private Integer replyCount;
+    private LocalDateTime createdDate;
+    private LocalDateTime lastBumpedAt;
+    //Estimación (HyperLogLog) de quienes respondieron al hilo
+    private Integer uniquePosters;
+
+    //Usado por las proyecciones JPQL (SELECT new ...); replyCount se completa después con el conteo agrupado
+    public PostSummaryDTO(UUID id, Long number, SectionEnum sectionType, String title, String contentPreview,
+                          String fileUrl, FileType fileType, FileStatus fileStatus,
+                          LocalDateTime createdDate, LocalDateTime lastBumpedAt, Integer uniquePosters) {
+        this(id, number, sectionType, title, contentPreview, fileUrl, fileType, fileStatus, 0, createdDate, lastBumpedAt,
+                uniquePosters != null ? uniquePosters : 0);
+    }
+}
@@ -14,6 +14,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class RePostDTO {
     private UUID id;
+    private Long number;
     private Post post;
     private String content;
     private String fileUrl;
@@ -25,6 +26,7 @@ public class RePostDTO {
 
     public RePostDTO(RePost rePost){
         this.id = rePost.getId();
+        this.number = rePost.getNumber();
         this.post = rePost.getPost();
         this.content = rePost.getContent();
         this.fileUrl = rePost.getFileUrl();
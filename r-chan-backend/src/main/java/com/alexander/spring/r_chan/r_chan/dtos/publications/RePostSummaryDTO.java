@@ -0,0 +1,38 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import com.alexander.spring.r_chan.r_chan.entity.RePost;
+import com.alexander.spring.r_chan.r_chan.enums.FileStatus;
+import com.alexander.spring.r_chan.r_chan.enums.FileType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//Vista compacta de una respuesta: solo el id del post padre en lugar de la entidad completa
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RePostSummaryDTO {
+    private UUID id;
+    private Long number;
+    private UUID parentId;
+    private String content;
+    private String fileUrl;
+    private FileType fileType;
+    private FileStatus fileStatus;
+    private LocalDateTime createdDate;
+
+    public RePostSummaryDTO(RePost rePost) {
+        this.id = rePost.getId();
+        this.number = rePost.getNumber();
+        //getId() sobre el proxy del post no lo inicializa
+        this.parentId = rePost.getPost().getId();
+        this.content = rePost.getContent();
+        this.fileUrl = rePost.getFileUrl();
+        this.fileType = rePost.getFileType();
+        this.fileStatus = rePost.getFileStatus();
+        this.createdDate = rePost.getCreatedDate();
+    }
+}
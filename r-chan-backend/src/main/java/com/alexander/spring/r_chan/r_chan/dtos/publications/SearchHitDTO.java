@@ -0,0 +1,24 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//Resultado de búsqueda: un post ("post") o una respuesta ("reply"); threadId permite abrir el hilo
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDTO {
+    private UUID id;
+    private Long number;
+    private UUID threadId;
+    private String kind;
+    private SectionEnum sectionType;
+    private String title;
+    private String contentPreview;
+    private LocalDateTime createdDate;
+}
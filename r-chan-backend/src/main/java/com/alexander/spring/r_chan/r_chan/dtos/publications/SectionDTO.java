@@ -19,6 +19,8 @@ public class SectionDTO {
     private String description;
     private SectionStatus status;
     private Integer postCount;
+    private Integer bumpLimit;
+    private Integer maxThreads;
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
 
@@ -29,6 +31,8 @@ public class SectionDTO {
         this.description = section.getDescription();
         this.status = section.getStatus();
         this.postCount = section.getPostCount();
+        this.bumpLimit = section.getBumpLimit();
+        this.maxThreads = section.getMaxThreads();
         this.createdDate = section.getCreatedDate();
         this.updatedDate = section.getUpdatedDate();
     }
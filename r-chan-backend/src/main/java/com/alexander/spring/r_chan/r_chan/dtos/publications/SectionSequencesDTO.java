@@ -0,0 +1,18 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SectionSequencesDTO {
+    //Cambia en cada reinicio: si difiere del que tenía el cliente, sus secuencias ya no sirven para comparar
+    private String epoch;
+    private long feed;
+    private Map<SectionEnum, Long> sections;
+}
@@ -0,0 +1,21 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+//Post inicial (con su contenido completo) y una página de respuestas aprobadas en orden cronológico
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadDTO {
+    private PostDTO post;
+    private CursorPageDTO<RePostSummaryDTO> replies;
+    //Quién cita a cada mensaje de esta página (el post y sus respuestas), por id del citado
+    private Map<UUID, List<BacklinkDTO>> backlinks;
+}
@@ -0,0 +1,18 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadDeltaDTO {
+    //Respuestas creadas, aprobadas o editadas desde el cursor; el cliente las aplica por id
+    private List<RePostSummaryDTO> replies;
+    //true si quedan más cambios: pedir de nuevo enseguida con el cursor devuelto
+    private boolean hasMore;
+    private String cursor;
+}
@@ -0,0 +1,14 @@
+package com.alexander.spring.r_chan.r_chan.dtos.publications;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewedThreadDTO {
+    private PostSummaryDTO post;
+    //Visitas guardadas más las que todavía no se volcaron a la base
+    private long viewCount;
+}
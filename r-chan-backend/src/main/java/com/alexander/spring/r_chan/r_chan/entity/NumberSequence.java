@@ -0,0 +1,23 @@
+package com.alexander.spring.r_chan.r_chan.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//Fila de una secuencia asignada por bloques (hi/lo): solo se escribe una vez por bloque, no por número
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "number_sequence")
+public class NumberSequence {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    //Primer número que todavía no se entregó a ningún bloque
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
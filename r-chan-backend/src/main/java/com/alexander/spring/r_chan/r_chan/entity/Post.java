@@ -22,12 +22,32 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
+@Table(indexes = {
+        //Índices para la paginación por cursor (keyset) del feed
+        @Index(name = "idx_post_status_created", columnList = "approval_status, created_date, id"),
+        @Index(name = "idx_post_section_status_created", columnList = "section_id, approval_status, created_date, id"),
+        //Índices para el feed en orden de bump
+        @Index(name = "idx_post_status_bumped", columnList = "approval_status, last_bumped_at, id"),
+        @Index(name = "idx_post_section_status_bumped", columnList = "section_id, approval_status, last_bumped_at, id"),
+        //Ranking de más vistos
+        @Index(name = "idx_post_status_views", columnList = "approval_status, view_count, id"),
+        @Index(name = "idx_post_section_status_views", columnList = "section_id, approval_status, view_count, id"),
+        //Número legible; se comparte con las respuestas, así que no se repite en todo el sitio
+        @Index(name = "uk_post_number", columnList = "post_number", unique = true)
+})
 public class Post {
 
+    //Largo del extracto que se muestra en los listados
+    public static final int PREVIEW_LENGTH = 160;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    //Asignado por PostNumberService al crear el post
+    @Column(name = "post_number")
+    private Long number;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "section_id", nullable = false)
     @JsonIgnoreProperties("posts")
@@ -38,6 +58,10 @@ public class Post {
     private String title;
     private String content;
 
+    //Se calcula al escribir para que los listados no tengan que leer ni recortar el contenido completo
+    @Column(name = "content_preview", length = PREVIEW_LENGTH)
+    private String contentPreview;
+
     @Column(name = "file_url")
     private String fileUrl;
 
@@ -56,6 +80,19 @@ public class Post {
     @Column(name = "reply_count")
     private Integer replyCount = 0;
 
+    //Lo escribe ThreadViewService en lotes; las visitas de los últimos segundos siguen en memoria.
+    //updatable = false: guardar un Post leído antes de un volcado no debe pisar las visitas sumadas por addViews
+    @Column(name = "view_count", updatable = false)
+    private Long viewCount = 0L;
+
+    //HyperLogLog de quienes respondieron (PosterSketch: hashes con sal, nunca direcciones); unique_posters es su estimación
+    @JsonIgnore
+    @Column(name = "poster_sketch", length = 256)
+    private byte[] posterSketch;
+
+    @Column(name = "unique_posters")
+    private Integer uniquePosters = 0;
+
     @Column(name = "created_date")
     @CreationTimestamp
     private LocalDateTime createdDate;
@@ -64,8 +101,33 @@ public class Post {
     @UpdateTimestamp
     private LocalDateTime updatedDate;
 
+    //Última respuesta que subió el hilo; deja de avanzar al llegar al bump limit de la sección
+    @Column(name = "last_bumped_at")
+    private LocalDateTime lastBumpedAt;
+
     @JsonIgnore
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL)
     private List<RePost> reposts = new ArrayList<>();
 
+    @PrePersist
+    private void prePersist() {
+        if (lastBumpedAt == null) {
+            lastBumpedAt = LocalDateTime.now();
+        }
+        refreshContentPreview();
+    }
+
+    @PreUpdate
+    private void refreshContentPreview() {
+        this.contentPreview = previewOf(content);
+    }
+
+    public static String previewOf(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        //No cortar un par sustituto (emoji) por la mitad
+        int end = Character.isHighSurrogate(content.charAt(PREVIEW_LENGTH - 1)) ? PREVIEW_LENGTH - 1 : PREVIEW_LENGTH;
+        return content.substring(0, end);
+    }
 }
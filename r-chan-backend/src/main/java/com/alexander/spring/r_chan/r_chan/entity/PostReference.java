@@ -0,0 +1,47 @@
+package com.alexander.spring.r_chan.r_chan.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Cita (>>número o >>uuid) encontrada en el contenido de un post o respuesta.
+ * Se extrae una sola vez al escribir; las vistas de hilo leen los backlinks por target_id.
+ * Origen y destino pueden ser un post o una respuesta; el hilo de cada uno se guarda aparte.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "post_reference", indexes = {
+        @Index(name = "idx_reference_target", columnList = "target_id"),
+        @Index(name = "idx_reference_source", columnList = "source_id"),
+        @Index(name = "idx_reference_source_thread", columnList = "source_thread_id")
+})
+public class PostReference {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "source_id", nullable = false)
+    private UUID sourceId;
+
+    @Column(name = "source_number")
+    private Long sourceNumber;
+
+    @Column(name = "source_thread_id", nullable = false)
+    private UUID sourceThreadId;
+
+    @Column(name = "target_id", nullable = false)
+    private UUID targetId;
+
+    @Column(name = "target_number")
+    private Long targetNumber;
+
+    @Column(name = "target_thread_id", nullable = false)
+    private UUID targetThreadId;
+}
@@ -3,6 +3,7 @@ package com.alexander.spring.r_chan.r_chan.entity;
 import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
 import com.alexander.spring.r_chan.r_chan.enums.FileStatus;
 import com.alexander.spring.r_chan.r_chan.enums.FileType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
@@ -17,12 +18,26 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
+@Table(indexes = {
+        //Índices para la paginación por cursor (keyset) de respuestas
+        @Index(name = "idx_repost_status_created", columnList = "approval_status, created_date, id"),
+        @Index(name = "idx_repost_post_status_created", columnList = "post_id, approval_status, created_date, id"),
+        //Índice para el polling de cambios de un hilo (respuestas nuevas o recién aprobadas)
+        @Index(name = "idx_repost_post_status_updated", columnList = "post_id, approval_status, updated_date, id"),
+        //Índice para el ranking de hilos hot (respuestas nuevas o recién aprobadas de todas las secciones)
+        @Index(name = "idx_repost_status_updated", columnList = "approval_status, updated_date, id"),
+        @Index(name = "uk_repost_number", columnList = "post_number", unique = true)
+})
 public class RePost {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    //Misma secuencia que los posts (PostNumberService)
+    @Column(name = "post_number")
+    private Long number;
+
     private String content;
 
     @Column(name = "file_url")
@@ -40,6 +55,11 @@ public class RePost {
     @Enumerated(EnumType.STRING)
     private ApprovalStatus approvalStatus = ApprovalStatus.PENDING;
 
+    //HMAC de quien respondió (PosterCountService); entra al sketch del hilo cuando la respuesta es visible
+    @JsonIgnore
+    @Column(name = "poster_hash")
+    private Long posterHash;
+
     @Column(name = "created_date")
     @CreationTimestamp
     private LocalDateTime createdDate;
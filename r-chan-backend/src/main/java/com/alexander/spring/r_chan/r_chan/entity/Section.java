@@ -35,6 +35,14 @@ public class Section {
     @Column(nullable = false)
     private Integer postCount = 0;
 
+    //Respuestas a partir de las cuales un hilo deja de subir; null usa app.thread.bump_limit
+    @Column(name = "bump_limit")
+    private Integer bumpLimit;
+
+    //Hilos visibles que conserva la sección; los menos bumpeados se podan. null usa app.thread.max_threads
+    @Column(name = "max_threads")
+    private Integer maxThreads;
+
     @CreationTimestamp
     @Column(name = "created_date", nullable = false, updatable = false)
     private LocalDateTime createdDate;
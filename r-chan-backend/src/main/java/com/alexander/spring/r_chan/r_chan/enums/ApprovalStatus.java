@@ -4,5 +4,10 @@ public enum ApprovalStatus {
     PENDING,
     APPROVED,
     REJECTED,
-    AUTO_APPROVED
+    AUTO_APPROVED;
+
+    //Solo los aprobados se muestran en los listados públicos
+    public boolean isPublic() {
+        return this == APPROVED || this == AUTO_APPROVED;
+    }
 }
@@ -0,0 +1,7 @@
+package com.alexander.spring.r_chan.r_chan.exceptions;
+
+public class InvalidPaginationException extends RuntimeException {
+    public InvalidPaginationException(String message) {
+        super(message);
+    }
+}
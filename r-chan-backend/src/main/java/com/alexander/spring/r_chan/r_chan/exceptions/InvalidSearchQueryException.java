@@ -0,0 +1,7 @@
+package com.alexander.spring.r_chan.r_chan.exceptions;
+
+public class InvalidSearchQueryException extends RuntimeException {
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+}
@@ -6,4 +6,8 @@ public class PostNotFoundException extends RuntimeException {
     public PostNotFoundException(UUID id) {
         super("Post with id: " +  id + ", not found.");
     }
+
+    public PostNotFoundException(long number) {
+        super("Post with number: " + number + ", not found.");
+    }
 }
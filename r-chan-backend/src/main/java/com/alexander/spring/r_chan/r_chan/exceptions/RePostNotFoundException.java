@@ -6,4 +6,8 @@ public class RePostNotFoundException extends RuntimeException {
     public RePostNotFoundException(UUID id) {
         super("RePost with id: " + id + ", not found.");
     }
+
+    public RePostNotFoundException(long number) {
+        super("RePost with number: " + number + ", not found.");
+    }
 }
@@ -4,6 +4,8 @@ import com.alexander.spring.r_chan.r_chan.entity.ModerationLog;
 import com.alexander.spring.r_chan.r_chan.enums.Actions;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +15,10 @@ import java.util.UUID;
 
 public interface ModerationLogRepository extends JpaRepository<ModerationLog, UUID> {
 
+    //Modo slice para el listado de moderadores: sin COUNT sobre toda la tabla de logs
+    @EntityGraph(attributePaths = "adminUser")
+    Slice<ModerationLog> findAllBy(Pageable pageable);
+
     Page<ModerationLog> findByAdminUserId(UUID adminId, Pageable pageable);
     Page<ModerationLog> findByPostId(UUID postId, Pageable pageable);
     Long countByAdminUserId(UUID adminId);
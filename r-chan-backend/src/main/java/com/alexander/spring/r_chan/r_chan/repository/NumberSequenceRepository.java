@@ -0,0 +1,18 @@
+package com.alexander.spring.r_chan.r_chan.repository;
+
+import com.alexander.spring.r_chan.r_chan.entity.NumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface NumberSequenceRepository extends JpaRepository<NumberSequence, String> {
+
+    //SELECT ... FOR UPDATE: dos instancias que piden bloque a la vez reciben rangos distintos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM NumberSequence s WHERE s.name = :name")
+    Optional<NumberSequence> lockByName(@Param("name") String name);
+}
@@ -0,0 +1,55 @@
+package com.alexander.spring.r_chan.r_chan.repository;
+
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+//Listados de posts con selección de columnas (parámetro fields=)
+public interface PostFieldsRepository {
+
+    String REPLY_COUNT = "replyCount";
+
+    //replyCount no es una columna seleccionada: lo completa el servicio con el conteo agrupado de respuestas visibles
+    Map<String, String> FIELD_PATHS = fieldPaths();
+
+    //Campos que acepta fields=
+    Set<String> FIELDS = Stream.concat(FIELD_PATHS.keySet().stream(), Stream.of(REPLY_COUNT))
+            .collect(Collectors.toUnmodifiableSet());
+
+    /**
+     * @param fields Campos a seleccionar (claves de FIELD_PATHS).
+     * @param sectionType Filtra por sección, o null para todas.
+     * @param statuses Estados visibles, o null para no filtrar (moderación).
+     */
+    Page<Map<String, Object>> findFields(List<String> fields, SectionEnum sectionType,
+                                         Collection<ApprovalStatus> statuses, Pageable pageable);
+
+    private static Map<String, String> fieldPaths() {
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("id", "id");
+        paths.put("number", "number");
+        paths.put("sectionType", "section.sectionType");
+        paths.put("title", "title");
+        paths.put("content", "content");
+        paths.put("contentPreview", "contentPreview");
+        paths.put("fileUrl", "fileUrl");
+        paths.put("fileType", "fileType");
+        paths.put("fileStatus", "fileStatus");
+        paths.put("approvalStatus", "approvalStatus");
+        paths.put("createdDate", "createdDate");
+        paths.put("updatedDate", "updatedDate");
+        paths.put("lastBumpedAt", "lastBumpedAt");
+        paths.put("uniquePosters", "uniquePosters");
+        return Collections.unmodifiableMap(paths);
+    }
+}
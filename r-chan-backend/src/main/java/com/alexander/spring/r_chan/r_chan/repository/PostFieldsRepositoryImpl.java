@@ -0,0 +1,36 @@
+package com.alexander.spring.r_chan.r_chan.repository;
+
+import com.alexander.spring.r_chan.r_chan.entity.Post;
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class PostFieldsRepositoryImpl implements PostFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> findFields(List<String> fields, SectionEnum sectionType,
+                                                Collection<ApprovalStatus> statuses, Pageable pageable) {
+        return new SparseFieldQuery<>(entityManager, Post.class, FIELD_PATHS).findPage(fields, (root, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (sectionType != null) {
+                predicates.add(cb.equal(root.get("section").get("sectionType"), sectionType));
+            }
+            if (statuses != null) {
+                predicates.add(root.get("approvalStatus").in(statuses));
+            }
+            return predicates;
+        }, pageable);
+    }
+}
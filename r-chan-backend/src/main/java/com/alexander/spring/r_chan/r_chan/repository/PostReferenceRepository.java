@@ -0,0 +1,29 @@
+package com.alexander.spring.r_chan.r_chan.repository;
+
+import com.alexander.spring.r_chan.r_chan.entity.PostReference;
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.repository.projection.Backlink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface PostReferenceRepository extends JpaRepository<PostReference, UUID> {
+
+    //Backlinks de una página de hilo: solo citas cuyo origen sigue visible
+    @Query("SELECT ref.targetId AS targetId, ref.sourceId AS sourceId, ref.sourceNumber AS sourceNumber, " +
+            "ref.sourceThreadId AS sourceThreadId FROM PostReference ref " +
+            "LEFT JOIN Post p ON p.id = ref.sourceId LEFT JOIN RePost r ON r.id = ref.sourceId " +
+            "WHERE ref.targetId IN :targetIds AND (p.approvalStatus IN :statuses OR r.approvalStatus IN :statuses) " +
+            "ORDER BY ref.sourceNumber ASC")
+    List<Backlink> findVisibleBacklinks(@Param("targetIds") Collection<UUID> targetIds,
+                                        @Param("statuses") Collection<ApprovalStatus> statuses);
+
+    List<PostReference> findBySourceId(UUID sourceId);
+
+    //Al borrar un hilo se van también las citas de todas sus respuestas
+    List<PostReference> findBySourceThreadId(UUID sourceThreadId);
+}
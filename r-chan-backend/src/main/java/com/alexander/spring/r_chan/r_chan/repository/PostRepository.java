@@ -1,24 +1,251 @@
 package com.alexander.spring.r_chan.r_chan.repository;
 
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostSummaryDTO;
 import com.alexander.spring.r_chan.r_chan.entity.Post;
 import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
 import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.repository.projection.PostViewCount;
+import com.alexander.spring.r_chan.r_chan.repository.projection.ReferenceTarget;
+import com.alexander.spring.r_chan.r_chan.repository.projection.SearchSource;
+import com.alexander.spring.r_chan.r_chan.repository.projection.ThreadState;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface PostRepository extends JpaRepository<Post, UUID> {
+public interface PostRepository extends JpaRepository<Post, UUID>, PostFieldsRepository {
+    //Los listados cargan la sección en la misma consulta para no disparar un SELECT por fila
+    @Override
+    @EntityGraph(attributePaths = "section")
+    Page<Post> findAll(Pageable pageable);
+
     Page<Post> findBySection_SectionType(SectionEnum sectionEnumType, Pageable pageable);
+
+    //Proyección de los listados públicos: no lee el contenido completo ni la entidad Section
+    String SUMMARY_SELECT = "SELECT new com.alexander.spring.r_chan.r_chan.dtos.publications.PostSummaryDTO(" +
+            "p.id, p.number, s.sectionType, p.title, p.contentPreview, p.fileUrl, p.fileType, p.fileStatus, p.createdDate, p.lastBumpedAt, " +
+            "p.uniquePosters) " +
+            "FROM Post p JOIN p.section s ";
+
     //Para findAllApproved
-    @Query("SELECT p FROM Post p WHERE p.approvalStatus IN :statuses")
-    Page<Post> findAllApproved(@Param("statuses") List<ApprovalStatus> statuses, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE p.approvalStatus IN :statuses",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.approvalStatus IN :statuses")
+    Page<PostSummaryDTO> findAllApproved(@Param("statuses") List<ApprovalStatus> statuses, Pageable pageable);
 
     //Para findBySectionType (modificar el existente)
-    @Query("SELECT p FROM Post p WHERE p.section.sectionType = :sectionType AND p.approvalStatus IN :statuses")
-    Page<Post> findBySection_SectionTypeAndApprovalStatusIn(@Param("sectionType") SectionEnum sectionEnumType, @Param("statuses") List<ApprovalStatus> statuses, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE s.sectionType = :sectionType AND p.approvalStatus IN :statuses",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.section.sectionType = :sectionType AND p.approvalStatus IN :statuses")
+    Page<PostSummaryDTO> findBySection_SectionTypeAndApprovalStatusIn(@Param("sectionType") SectionEnum sectionEnumType, @Param("statuses") List<ApprovalStatus> statuses, Pageable pageable);
+
+    //Modo slice: Spring Data pide size + 1 filas y no ejecuta el COUNT
+    @Query(SUMMARY_SELECT + "WHERE p.approvalStatus IN :statuses")
+    Slice<PostSummaryDTO> findAllApprovedSlice(@Param("statuses") List<ApprovalStatus> statuses, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE s.sectionType = :sectionType AND p.approvalStatus IN :statuses")
+    Slice<PostSummaryDTO> findBySectionTypeApprovedSlice(@Param("sectionType") SectionEnum sectionEnumType,
+                                                         @Param("statuses") List<ApprovalStatus> statuses,
+                                                         Pageable pageable);
+
+    //Paginación por cursor (keyset) sobre (createdDate, id); el Pageable solo aporta el LIMIT
+    @Query(SUMMARY_SELECT + "WHERE p.approvalStatus IN :statuses ORDER BY p.createdDate DESC, p.id DESC")
+    List<PostSummaryDTO> findAllApprovedFirst(@Param("statuses") List<ApprovalStatus> statuses, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.approvalStatus IN :statuses " +
+            "AND (p.createdDate < :createdDate OR (p.createdDate = :createdDate AND p.id < :id)) " +
+            "ORDER BY p.createdDate DESC, p.id DESC")
+    List<PostSummaryDTO> findAllApprovedAfter(@Param("statuses") List<ApprovalStatus> statuses,
+                                              @Param("createdDate") LocalDateTime createdDate,
+                                              @Param("id") UUID id,
+                                              Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE s.sectionType = :sectionType AND p.approvalStatus IN :statuses " +
+            "ORDER BY p.createdDate DESC, p.id DESC")
+    List<PostSummaryDTO> findBySectionTypeApprovedFirst(@Param("sectionType") SectionEnum sectionEnumType,
+                                                        @Param("statuses") List<ApprovalStatus> statuses,
+                                                        Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE s.sectionType = :sectionType AND p.approvalStatus IN :statuses " +
+            "AND (p.createdDate < :createdDate OR (p.createdDate = :createdDate AND p.id < :id)) " +
+            "ORDER BY p.createdDate DESC, p.id DESC")
+    List<PostSummaryDTO> findBySectionTypeApprovedAfter(@Param("sectionType") SectionEnum sectionEnumType,
+                                                        @Param("statuses") List<ApprovalStatus> statuses,
+                                                        @Param("createdDate") LocalDateTime createdDate,
+                                                        @Param("id") UUID id,
+                                                        Pageable limit);
+
+    //Resúmenes de posts visibles a partir de sus ids (el orden lo decide quien llama)
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids AND p.approvalStatus IN :statuses")
+    List<PostSummaryDTO> findSummariesByIds(@Param("ids") Collection<UUID> ids,
+                                            @Param("statuses") List<ApprovalStatus> statuses);
+
+    //Mismo keyset en orden de bump sobre (lastBumpedAt, id)
+    @Query(SUMMARY_SELECT + "WHERE p.approvalStatus IN :statuses ORDER BY p.lastBumpedAt DESC, p.id DESC")
+    List<PostSummaryDTO> findAllApprovedByBumpFirst(@Param("statuses") List<ApprovalStatus> statuses, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.approvalStatus IN :statuses " +
+            "AND (p.lastBumpedAt < :lastBumpedAt OR (p.lastBumpedAt = :lastBumpedAt AND p.id < :id)) " +
+            "ORDER BY p.lastBumpedAt DESC, p.id DESC")
+    List<PostSummaryDTO> findAllApprovedByBumpAfter(@Param("statuses") List<ApprovalStatus> statuses,
+                                                    @Param("lastBumpedAt") LocalDateTime lastBumpedAt,
+                                                    @Param("id") UUID id,
+                                                    Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE s.sectionType = :sectionType AND p.approvalStatus IN :statuses " +
+            "ORDER BY p.lastBumpedAt DESC, p.id DESC")
+    List<PostSummaryDTO> findBySectionTypeApprovedByBumpFirst(@Param("sectionType") SectionEnum sectionEnumType,
+                                                              @Param("statuses") List<ApprovalStatus> statuses,
+                                                              Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE s.sectionType = :sectionType AND p.approvalStatus IN :statuses " +
+            "AND (p.lastBumpedAt < :lastBumpedAt OR (p.lastBumpedAt = :lastBumpedAt AND p.id < :id)) " +
+            "ORDER BY p.lastBumpedAt DESC, p.id DESC")
+    List<PostSummaryDTO> findBySectionTypeApprovedByBumpAfter(@Param("sectionType") SectionEnum sectionEnumType,
+                                                              @Param("statuses") List<ApprovalStatus> statuses,
+                                                              @Param("lastBumpedAt") LocalDateTime lastBumpedAt,
+                                                              @Param("id") UUID id,
+                                                              Pageable limit);
+
+    //Completa el extracto de los posts creados antes de que existiera la columna
+    boolean existsByContentPreviewIsNullAndContentIsNotNull();
+
+    boolean existsByLastBumpedAtIsNull();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.contentPreview = SUBSTRING(p.content, 1, :length) " +
+            "WHERE p.contentPreview IS NULL AND p.content IS NOT NULL")
+    int backfillContentPreviews(@Param("length") int length);
+
+    //Los posts anteriores a la columna last_bumped_at toman la fecha de su última respuesta visible
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.lastBumpedAt = COALESCE(" +
+            "(SELECT MAX(r.createdDate) FROM RePost r WHERE r.post = p AND r.approvalStatus IN :statuses), " +
+            "p.createdDate) WHERE p.lastBumpedAt IS NULL")
+    int backfillLastBumpedAt(@Param("statuses") List<ApprovalStatus> statuses);
+
+    //Vista de hilo en una sola consulta: post con su sección y una respuesta aprobada por fila
+    //(o una única fila con null si no hay). El total de respuestas se cuenta aparte, una sola vez:
+    //como subconsulta en el SELECT se evaluaría en cada fila. Sin filas si el post no existe o no es público
+    @Query("SELECT p, r " +
+            "FROM Post p JOIN FETCH p.section " +
+            "LEFT JOIN RePost r ON r.post = p AND r.approvalStatus IN :statuses " +
+            "WHERE p.id = :postId AND p.approvalStatus IN :statuses ORDER BY r.createdDate ASC, r.id ASC")
+    List<Object[]> findThreadFirst(@Param("postId") UUID postId,
+                                   @Param("statuses") List<ApprovalStatus> statuses,
+                                   Pageable limit);
+
+    @Query("SELECT p, r " +
+            "FROM Post p JOIN FETCH p.section " +
+            "LEFT JOIN RePost r ON r.post = p AND r.approvalStatus IN :statuses " +
+            "AND (r.createdDate > :createdDate OR (r.createdDate = :createdDate AND r.id > :id)) " +
+            "WHERE p.id = :postId AND p.approvalStatus IN :statuses ORDER BY r.createdDate ASC, r.id ASC")
+    List<Object[]> findThreadAfter(@Param("postId") UUID postId,
+                                   @Param("statuses") List<ApprovalStatus> statuses,
+                                   @Param("createdDate") LocalDateTime createdDate,
+                                   @Param("id") UUID id,
+                                   Pageable limit);
+
+    //Destinos de citas: el hilo de un post es el propio post
+    @Query("SELECT p.id AS id, p.number AS number, p.id AS threadId FROM Post p WHERE p.number IN :numbers")
+    List<ReferenceTarget> findReferenceTargetsByNumber(@Param("numbers") Collection<Long> numbers);
+
+    @Query("SELECT p.id AS id, p.number AS number, p.id AS threadId FROM Post p WHERE p.id IN :ids")
+    List<ReferenceTarget> findReferenceTargetsById(@Param("ids") Collection<UUID> ids);
+
+    //Números legibles: búsqueda por número y backfill de las filas anteriores a la columna
+    Optional<Post> findByNumber(Long number);
+
+    @Query("SELECT MAX(p.number) FROM Post p")
+    Optional<Long> findMaxNumber();
+
+    long countByNumberIsNull();
+
+    //Numera en un solo UPDATE todas las filas sin número, en orden de creación, a partir de :start.
+    //Nativa por ROW_NUMBER; no toca updated_date (lo usa el polling de hilos)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE post x JOIN (" +
+            "SELECT id, ROW_NUMBER() OVER (ORDER BY created_date, id) AS rn FROM post WHERE post_number IS NULL) t " +
+            "ON t.id = x.id SET x.post_number = :start + t.rn - 1 WHERE x.post_number IS NULL", nativeQuery = true)
+    int assignMissingNumbers(@Param("start") long start);
+
+    //Origen del índice de búsqueda: un post es su propio hilo
+    String SEARCH_SELECT = "SELECT p.id AS id, p.number AS number, p.id AS threadId, s.sectionType AS sectionType, " +
+            "p.title AS title, p.content AS content, p.approvalStatus AS approvalStatus, " +
+            "p.approvalStatus AS threadApprovalStatus, p.createdDate AS createdDate FROM Post p JOIN p.section s ";
+
+    @Query(SEARCH_SELECT + "WHERE p.id = :id")
+    Optional<SearchSource> findSearchSourceById(@Param("id") UUID id);
+
+    @Query(SEARCH_SELECT + "WHERE s.sectionType = :sectionType AND p.approvalStatus IN :statuses " +
+            "AND (p.createdDate > :createdDate OR (p.createdDate = :createdDate AND p.id > :id)) " +
+            "ORDER BY p.createdDate ASC, p.id ASC")
+    List<SearchSource> findSearchSourcesAfter(@Param("sectionType") SectionEnum sectionType,
+                                              @Param("statuses") List<ApprovalStatus> statuses,
+                                              @Param("createdDate") LocalDateTime createdDate,
+                                              @Param("id") UUID id,
+                                              Pageable limit);
+
+    //Poda: hilos visibles de una sección y los menos recientemente bumpeados (idx_post_section_status_bumped)
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.section.id = :sectionId AND p.approvalStatus IN :statuses")
+    long countBySectionApproved(@Param("sectionId") UUID sectionId,
+                                @Param("statuses") List<ApprovalStatus> statuses);
+
+    @Query("SELECT p.id FROM Post p WHERE p.section.id = :sectionId AND p.approvalStatus IN :statuses " +
+            "ORDER BY p.lastBumpedAt ASC, p.id ASC")
+    List<UUID> findLeastBumpedIds(@Param("sectionId") UUID sectionId,
+                                  @Param("statuses") List<ApprovalStatus> statuses,
+                                  Pageable limit);
+
+    //Estado de cada hilo: la poda lo compara antes de archivar y dentro del borrado
+    @Query("SELECT p.id AS postId, p.updatedDate AS updatedDate, p.lastBumpedAt AS lastBumpedAt, " +
+            "p.replyCount AS replyCount, COUNT(r) AS approvedReplies, MAX(r.updatedDate) AS lastReplyUpdate " +
+            "FROM Post p LEFT JOIN RePost r ON r.post = p AND r.approvalStatus IN :statuses " +
+            "WHERE p.id IN :ids GROUP BY p.id, p.updatedDate, p.lastBumpedAt, p.replyCount")
+    List<ThreadState> findThreadStates(@Param("ids") Collection<UUID> ids,
+                                       @Param("statuses") List<ApprovalStatus> statuses);
+
+    //SELECT ... FOR UPDATE: una respuesta nueva actualiza el post, así que espera a que termine el borrado
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Post p WHERE p.id IN :ids")
+    List<Post> lockByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.fileUrl FROM Post p WHERE p.id IN :ids AND p.fileUrl IS NOT NULL")
+    List<String> findFileUrlsByIds(@Param("ids") Collection<UUID> ids);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Post p WHERE p.id IN :ids")
+    int deleteAllByIds(@Param("ids") Collection<UUID> ids);
+
+    //Visitas acumuladas en memoria: un UPDATE por cada valor distinto de delta, no uno por hilo
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.viewCount = COALESCE(p.viewCount, 0) + :delta WHERE p.id IN :ids")
+    int addViews(@Param("ids") Collection<UUID> ids, @Param("delta") long delta);
+
+    @Query("SELECT p.id AS postId, p.viewCount AS viewCount FROM Post p WHERE p.approvalStatus IN :statuses " +
+            "ORDER BY p.viewCount DESC, p.id DESC")
+    List<PostViewCount> findMostViewed(@Param("statuses") List<ApprovalStatus> statuses, Pageable limit);
+
+    @Query("SELECT p.id AS postId, p.viewCount AS viewCount FROM Post p " +
+            "WHERE p.section.sectionType = :sectionType AND p.approvalStatus IN :statuses " +
+            "ORDER BY p.viewCount DESC, p.id DESC")
+    List<PostViewCount> findMostViewedBySectionType(@Param("sectionType") SectionEnum sectionType,
+                                                    @Param("statuses") List<ApprovalStatus> statuses,
+                                                    Pageable limit);
 }
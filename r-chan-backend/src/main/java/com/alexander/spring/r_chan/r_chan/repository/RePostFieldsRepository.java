@@ -0,0 +1,39 @@
+package com.alexander.spring.r_chan.r_chan.repository;
+
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Listados de respuestas con selección de columnas (parámetro fields=)
+public interface RePostFieldsRepository {
+
+    Map<String, String> FIELD_PATHS = fieldPaths();
+
+    //Campos que acepta fields=
+    Set<String> FIELDS = FIELD_PATHS.keySet();
+
+    Page<Map<String, Object>> findFields(List<String> fields, Collection<ApprovalStatus> statuses, Pageable pageable);
+
+    private static Map<String, String> fieldPaths() {
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("id", "id");
+        paths.put("number", "number");
+        //Solo la clave foránea: no hace JOIN con post
+        paths.put("parentId", "post.id");
+        paths.put("content", "content");
+        paths.put("fileUrl", "fileUrl");
+        paths.put("fileType", "fileType");
+        paths.put("fileStatus", "fileStatus");
+        paths.put("approvalStatus", "approvalStatus");
+        paths.put("createdDate", "createdDate");
+        paths.put("updatedDate", "updatedDate");
+        return Collections.unmodifiableMap(paths);
+    }
+}
@@ -1,29 +1,173 @@
 package com.alexander.spring.r_chan.r_chan.repository;
 
+import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostSummaryDTO;
 import com.alexander.spring.r_chan.r_chan.entity.RePost;
 import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.repository.projection.PostReplyCount;
+import com.alexander.spring.r_chan.r_chan.repository.projection.RecentReply;
+import com.alexander.spring.r_chan.r_chan.repository.projection.ReferenceTarget;
+import com.alexander.spring.r_chan.r_chan.repository.projection.SearchSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface RePostRepository extends JpaRepository<RePost, UUID> {
+public interface RePostRepository extends JpaRepository<RePost, UUID>, RePostFieldsRepository {
     Optional<RePost> findByPostId(UUID id);
     List<RePost> findByPost_Id(UUID postId);
 
     @Query("SELECT r FROM RePost r WHERE r.post.id = :postId")
     Page<RePost> findByPostId(@Param("postId") UUID postId, Pageable pageable);
 
+    //Proyección de los listados públicos: solo el id del post padre, sin cargar la entidad
+    String SUMMARY_SELECT = "SELECT new com.alexander.spring.r_chan.r_chan.dtos.publications.RePostSummaryDTO(" +
+            "r.id, r.number, r.post.id, r.content, r.fileUrl, r.fileType, r.fileStatus, r.createdDate) FROM RePost r ";
+
     //Para findAllApproved
-    @Query("SELECT r FROM RePost r WHERE r.approvalStatus IN :statuses")
-    Page<RePost> findAllApproved(@Param("statuses") List<ApprovalStatus> statuses, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE r.approvalStatus IN :statuses",
+            countQuery = "SELECT COUNT(r) FROM RePost r WHERE r.approvalStatus IN :statuses")
+    Page<RePostSummaryDTO> findAllApproved(@Param("statuses") List<ApprovalStatus> statuses, Pageable pageable);
+
+    //Modo slice: Spring Data pide size + 1 filas y no ejecuta el COUNT
+    @Query(SUMMARY_SELECT + "WHERE r.approvalStatus IN :statuses")
+    Slice<RePostSummaryDTO> findAllApprovedSlice(@Param("statuses") List<ApprovalStatus> statuses, Pageable pageable);
 
     //Para findByPostId (modificar el existente)
-    @Query("SELECT r FROM RePost r WHERE r.post.id = :postId AND r.approvalStatus IN :statuses")
-    List<RePost> findByPost_IdAndApprovalStatusIn(@Param("postId") UUID postId, @Param("statuses") List<ApprovalStatus> statuses);
+    @Query(SUMMARY_SELECT + "WHERE r.post.id = :postId AND r.approvalStatus IN :statuses")
+    List<RePostSummaryDTO> findByPost_IdAndApprovalStatusIn(@Param("postId") UUID postId, @Param("statuses") List<ApprovalStatus> statuses);
+
+    long countByPost_IdAndApprovalStatusIn(UUID postId, Collection<ApprovalStatus> statuses);
+
+    //Respuestas aprobadas de todos los posts de una página en una sola consulta
+    @Query("SELECT r.post.id AS postId, COUNT(r) AS replyCount FROM RePost r " +
+            "WHERE r.post.id IN :postIds AND r.approvalStatus IN :statuses GROUP BY r.post.id")
+    List<PostReplyCount> countApprovedByPostIds(@Param("postIds") Collection<UUID> postIds,
+                                                @Param("statuses") Collection<ApprovalStatus> statuses);
+
+    //Últimas N respuestas visibles de cada post de una página en una sola consulta (ROW_NUMBER por post_id).
+    //Nativa porque JPQL no admite funciones de ventana en una tabla derivada; los estados van como texto (EnumType.STRING)
+    @Query(value = "SELECT t.* FROM (" +
+            "SELECT r.*, ROW_NUMBER() OVER (PARTITION BY r.post_id ORDER BY r.created_date DESC, r.id DESC) AS rn " +
+            "FROM re_post r WHERE r.post_id IN (:postIds) AND r.approval_status IN (:statuses)) t " +
+            "WHERE t.rn <= :perPost", nativeQuery = true)
+    List<RePost> findLastApprovedByPostIds(@Param("postIds") Collection<UUID> postIds,
+                                           @Param("statuses") Collection<String> statuses,
+                                           @Param("perPost") int perPost);
+
+    //Respuestas visibles modificadas (creadas o aprobadas) después de una marca (updatedDate, id); usa idx_repost_status_updated
+    @Query("SELECT r.id AS id, r.post.id AS postId, s.sectionType AS sectionType, " +
+            "r.createdDate AS createdDate, r.updatedDate AS updatedDate " +
+            "FROM RePost r JOIN r.post p JOIN p.section s WHERE r.approvalStatus IN :statuses " +
+            "AND (r.updatedDate > :updatedDate OR (r.updatedDate = :updatedDate AND r.id > :id)) " +
+            "ORDER BY r.updatedDate ASC, r.id ASC")
+    List<RecentReply> findRecentApprovedUpdatedAfter(@Param("statuses") Collection<ApprovalStatus> statuses,
+                                                     @Param("updatedDate") LocalDateTime updatedDate,
+                                                     @Param("id") UUID id,
+                                                     Pageable limit);
+
+    //Delta de un hilo: respuestas visibles modificadas (creadas o aprobadas) después de (updatedDate, id);
+    //usa idx_repost_post_status_updated y su costo depende de la actividad nueva, no del largo del hilo
+    @Query("SELECT r FROM RePost r WHERE r.post.id = :postId AND r.approvalStatus IN :statuses " +
+            "AND (r.updatedDate > :updatedDate OR (r.updatedDate = :updatedDate AND r.id > :id)) " +
+            "ORDER BY r.updatedDate ASC, r.id ASC")
+    List<RePost> findByPostIdApprovedUpdatedAfter(@Param("postId") UUID postId,
+                                                  @Param("statuses") List<ApprovalStatus> statuses,
+                                                  @Param("updatedDate") LocalDateTime updatedDate,
+                                                  @Param("id") UUID id,
+                                                  Pageable limit);
+
+    //Paginación por cursor (keyset) sobre (createdDate, id); el Pageable solo aporta el LIMIT
+    @Query(SUMMARY_SELECT + "WHERE r.approvalStatus IN :statuses ORDER BY r.createdDate DESC, r.id DESC")
+    List<RePostSummaryDTO> findAllApprovedFirst(@Param("statuses") List<ApprovalStatus> statuses, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE r.approvalStatus IN :statuses " +
+            "AND (r.createdDate < :createdDate OR (r.createdDate = :createdDate AND r.id < :id)) " +
+            "ORDER BY r.createdDate DESC, r.id DESC")
+    List<RePostSummaryDTO> findAllApprovedAfter(@Param("statuses") List<ApprovalStatus> statuses,
+                                                @Param("createdDate") LocalDateTime createdDate,
+                                                @Param("id") UUID id,
+                                                Pageable limit);
+
+    //Las respuestas de un hilo se leen en orden cronológico
+    @Query(SUMMARY_SELECT + "WHERE r.post.id = :postId AND r.approvalStatus IN :statuses " +
+            "ORDER BY r.createdDate ASC, r.id ASC")
+    List<RePostSummaryDTO> findByPostIdApprovedFirst(@Param("postId") UUID postId,
+                                                     @Param("statuses") List<ApprovalStatus> statuses,
+                                                     Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE r.post.id = :postId AND r.approvalStatus IN :statuses " +
+            "AND (r.createdDate > :createdDate OR (r.createdDate = :createdDate AND r.id > :id)) " +
+            "ORDER BY r.createdDate ASC, r.id ASC")
+    List<RePostSummaryDTO> findByPostIdApprovedAfter(@Param("postId") UUID postId,
+                                                     @Param("statuses") List<ApprovalStatus> statuses,
+                                                     @Param("createdDate") LocalDateTime createdDate,
+                                                     @Param("id") UUID id,
+                                                     Pageable limit);
+
+    //Destinos de citas: el hilo de una respuesta es su post
+    @Query("SELECT r.id AS id, r.number AS number, r.post.id AS threadId FROM RePost r WHERE r.number IN :numbers")
+    List<ReferenceTarget> findReferenceTargetsByNumber(@Param("numbers") Collection<Long> numbers);
+
+    @Query("SELECT r.id AS id, r.number AS number, r.post.id AS threadId FROM RePost r WHERE r.id IN :ids")
+    List<ReferenceTarget> findReferenceTargetsById(@Param("ids") Collection<UUID> ids);
+
+    //Números legibles: búsqueda por número y backfill de las filas anteriores a la columna
+    Optional<RePost> findByNumber(Long number);
+
+    @Query("SELECT MAX(r.number) FROM RePost r")
+    Optional<Long> findMaxNumber();
+
+    long countByNumberIsNull();
+
+    //Numera en un solo UPDATE todas las filas sin número, en orden de creación, a partir de :start.
+    //Nativa por ROW_NUMBER; no toca updated_date (lo usa el polling de hilos)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE re_post x JOIN (" +
+            "SELECT id, ROW_NUMBER() OVER (ORDER BY created_date, id) AS rn FROM re_post WHERE post_number IS NULL) t " +
+            "ON t.id = x.id SET x.post_number = :start + t.rn - 1 WHERE x.post_number IS NULL", nativeQuery = true)
+    int assignMissingNumbers(@Param("start") long start);
+
+    //Origen del índice de búsqueda: la sección y el estado vienen del hilo (una respuesta no tiene título propio)
+    String SEARCH_SELECT = "SELECT r.id AS id, r.number AS number, p.id AS threadId, s.sectionType AS sectionType, " +
+            "p.title AS title, r.content AS content, r.approvalStatus AS approvalStatus, " +
+            "p.approvalStatus AS threadApprovalStatus, r.createdDate AS createdDate " +
+            "FROM RePost r JOIN r.post p JOIN p.section s ";
+
+    @Query(SEARCH_SELECT + "WHERE r.id = :id")
+    Optional<SearchSource> findSearchSourceById(@Param("id") UUID id);
+
+    @Query(SEARCH_SELECT + "WHERE p.id = :postId AND r.approvalStatus IN :statuses")
+    List<SearchSource> findSearchSourcesByPostId(@Param("postId") UUID postId,
+                                                 @Param("statuses") List<ApprovalStatus> statuses);
+
+    @Query(SEARCH_SELECT + "WHERE s.sectionType = :sectionType AND r.approvalStatus IN :statuses " +
+            "AND p.approvalStatus IN :statuses " +
+            "AND (r.createdDate > :createdDate OR (r.createdDate = :createdDate AND r.id > :id)) " +
+            "ORDER BY r.createdDate ASC, r.id ASC")
+    List<SearchSource> findSearchSourcesAfter(@Param("sectionType") SectionEnum sectionType,
+                                              @Param("statuses") List<ApprovalStatus> statuses,
+                                              @Param("createdDate") LocalDateTime createdDate,
+                                              @Param("id") UUID id,
+                                              Pageable limit);
+
+    //Poda: las respuestas se borran con su hilo
+    @Query("SELECT r.fileUrl FROM RePost r WHERE r.post.id IN :postIds AND r.fileUrl IS NOT NULL")
+    List<String> findFileUrlsByPostIds(@Param("postIds") Collection<UUID> postIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RePost r WHERE r.post.id IN :postIds")
+    int deleteAllByPostIds(@Param("postIds") Collection<UUID> postIds);
 }
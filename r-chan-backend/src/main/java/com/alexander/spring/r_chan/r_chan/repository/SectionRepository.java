@@ -3,7 +3,11 @@ package com.alexander.spring.r_chan.r_chan.repository;
 import com.alexander.spring.r_chan.r_chan.entity.Section;
 import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -11,4 +15,11 @@ import java.util.UUID;
 @Repository
 public interface SectionRepository extends JpaRepository<Section, UUID> {
     Optional<Section> findBySectionType(SectionEnum sectionEnumType);
+
+    //Descuenta los hilos podados sin cargar la sección; nunca baja de cero
+    @Transactional
+    @Modifying
+    @Query("UPDATE Section s SET s.postCount = CASE WHEN s.postCount > :count THEN s.postCount - :count ELSE 0 END " +
+            "WHERE s.id = :id")
+    int decrementPostCount(@Param("id") UUID id, @Param("count") int count);
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.alexander.spring.r_chan.r_chan.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Consulta por Criteria que selecciona solo las columnas pedidas y devuelve cada fila
+ * como un mapa campo -> valor en el orden de la selección.
+ */
+final class SparseFieldQuery<T> {
+
+    private final EntityManager entityManager;
+    private final Class<T> entityType;
+    //Nombre público del campo -> ruta en la entidad (por ejemplo "section.sectionType")
+    private final Map<String, String> paths;
+
+    SparseFieldQuery(EntityManager entityManager, Class<T> entityType, Map<String, String> paths) {
+        this.entityManager = entityManager;
+        this.entityType = entityType;
+        this.paths = paths;
+    }
+
+    Page<Map<String, Object>> findPage(List<String> fields,
+                                       BiFunction<Root<T>, CriteriaBuilder, List<Predicate>> where,
+                                       Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityType);
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(path(root, paths.get(field)).alias(field));
+        }
+        query.multiselect(selections)
+                .where(where.apply(root, cb).toArray(Predicate[]::new))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+
+        //El COUNT solo se ejecuta si la página no permite deducir el total
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(where));
+    }
+
+    private long count(BiFunction<Root<T>, CriteriaBuilder, List<Predicate>> where) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+        query.select(cb.count(root)).where(where.apply(root, cb).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Path<?> path(Root<?> root, String dotted) {
+        Path<?> path = root;
+        for (String part : dotted.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,10 @@
+package com.alexander.spring.r_chan.r_chan.repository.projection;
+
+import java.util.UUID;
+
+public interface Backlink {
+    UUID getTargetId();
+    UUID getSourceId();
+    Long getSourceNumber();
+    UUID getSourceThreadId();
+}
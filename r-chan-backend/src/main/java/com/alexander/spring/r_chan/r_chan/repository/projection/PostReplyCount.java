@@ -0,0 +1,9 @@
+package com.alexander.spring.r_chan.r_chan.repository.projection;
+
+import java.util.UUID;
+
+//Fila del conteo agrupado de respuestas aprobadas por post
+public interface PostReplyCount {
+    UUID getPostId();
+    Long getReplyCount();
+}
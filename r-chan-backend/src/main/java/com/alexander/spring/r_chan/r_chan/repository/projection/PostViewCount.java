@@ -0,0 +1,9 @@
+package com.alexander.spring.r_chan.r_chan.repository.projection;
+
+import java.util.UUID;
+
+//Visitas ya escritas en la base de un post
+public interface PostViewCount {
+    UUID getPostId();
+    Long getViewCount();
+}
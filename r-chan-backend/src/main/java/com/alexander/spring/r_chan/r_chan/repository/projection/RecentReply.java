@@ -0,0 +1,15 @@
+package com.alexander.spring.r_chan.r_chan.repository.projection;
+
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//Fila mínima de una respuesta reciente: lo justo para puntuar su hilo
+public interface RecentReply {
+    UUID getId();
+    UUID getPostId();
+    SectionEnum getSectionType();
+    LocalDateTime getCreatedDate();
+    LocalDateTime getUpdatedDate();
+}
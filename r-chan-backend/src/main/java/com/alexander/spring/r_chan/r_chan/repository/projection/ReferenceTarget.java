@@ -0,0 +1,10 @@
+package com.alexander.spring.r_chan.r_chan.repository.projection;
+
+import java.util.UUID;
+
+//Destino posible de una cita: el post o la respuesta, su número y el hilo al que pertenece
+public interface ReferenceTarget {
+    UUID getId();
+    Long getNumber();
+    UUID getThreadId();
+}
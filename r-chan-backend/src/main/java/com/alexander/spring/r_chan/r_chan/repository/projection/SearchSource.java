@@ -0,0 +1,20 @@
+package com.alexander.spring.r_chan.r_chan.repository.projection;
+
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//Fila que se indexa en la búsqueda: un post o una respuesta, con la sección y el estado de su hilo
+public interface SearchSource {
+    UUID getId();
+    Long getNumber();
+    UUID getThreadId();
+    SectionEnum getSectionType();
+    String getTitle();
+    String getContent();
+    ApprovalStatus getApprovalStatus();
+    ApprovalStatus getThreadApprovalStatus();
+    LocalDateTime getCreatedDate();
+}
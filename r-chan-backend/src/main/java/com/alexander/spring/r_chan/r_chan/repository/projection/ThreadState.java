@@ -0,0 +1,14 @@
+package com.alexander.spring.r_chan.r_chan.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//Lo que cambia en un hilo cuando llega, se aprueba o se edita una respuesta
+public interface ThreadState {
+    UUID getPostId();
+    LocalDateTime getUpdatedDate();
+    LocalDateTime getLastBumpedAt();
+    Integer getReplyCount();
+    Long getApprovedReplies();
+    LocalDateTime getLastReplyUpdate();
+}
@@ -4,6 +4,7 @@ import com.alexander.spring.r_chan.r_chan.entity.ModerationLog;
 import com.alexander.spring.r_chan.r_chan.enums.Actions;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -35,4 +36,5 @@ public interface ModerationLogService {
     Page<ModerationLog> getLogsByAction(Actions action, Pageable pageable);
     Page<ModerationLog> getLogsByDateRange(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
     Page<ModerationLog> getAllLogs(Pageable pageable);
+    Slice<ModerationLog> getAllLogsSlice(Pageable pageable);
 }
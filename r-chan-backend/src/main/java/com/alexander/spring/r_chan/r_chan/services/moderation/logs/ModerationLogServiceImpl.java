@@ -9,6 +9,7 @@ import com.alexander.spring.r_chan.r_chan.services.security.CurrentUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -204,4 +205,9 @@ public class ModerationLogServiceImpl implements ModerationLogService{
     public Page<ModerationLog> getAllLogs(Pageable pageable) {
         return moderationLogRepository.findAll(pageable);
     }
+
+    @Override
+    public Slice<ModerationLog> getAllLogsSlice(Pageable pageable) {
+        return moderationLogRepository.findAllBy(pageable);
+    }
 }
\ No newline at end of file
@@ -1,19 +1,38 @@
 package com.alexander.spring.r_chan.r_chan.services.publications;
 
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SliceDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.IndexThreadDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostBatchDTO;
 import com.alexander.spring.r_chan.r_chan.dtos.publications.PostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostSummaryDTO;
 import com.alexander.spring.r_chan.r_chan.entity.Post;
 import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface PostService {
     Page<PostDTO> findAll(Pageable pageable);
-    Page<PostDTO> findAllApproved(Pageable pageable);
+    Page<PostSummaryDTO> findAllApproved(Pageable pageable);
     PostDTO findById(UUID id);
+    PostDTO findByNumber(long number);
     Post findByIdE(UUID id);
-    Page<PostDTO> findBySectionType(SectionEnum sectionType, Pageable pageable);
+    Page<PostSummaryDTO> findBySectionType(SectionEnum sectionType, Pageable pageable);
+    Page<IndexThreadDTO> findIndex(SectionEnum sectionType, Pageable pageable, int replies);
+    Page<Map<String, Object>> findApprovedFields(SectionEnum sectionType, List<String> fields, Pageable pageable);
+    Page<Map<String, Object>> findAllFields(List<String> fields, Pageable pageable);
+    SliceDTO<PostSummaryDTO> sliceAllApproved(Pageable pageable);
+    SliceDTO<PostSummaryDTO> sliceBySectionType(SectionEnum sectionType, Pageable pageable);
+    CursorPageDTO<PostSummaryDTO> scrollAllApproved(String sort, String cursor, int size);
+    CursorPageDTO<PostSummaryDTO> scrollBySectionType(SectionEnum sectionType, String sort, String cursor, int size);
+    List<PostSummaryDTO> findSummariesByIds(Collection<UUID> ids);
+    List<PostSummaryDTO> findCatalog(SectionEnum sectionType, int limit);
+    PostBatchDTO findBatch(List<UUID> ids);
     PostDTO savePost(Post post);
     PostDTO savePostWithoutLog(Post post);
     PostDTO updatePost(UUID id, Post post);
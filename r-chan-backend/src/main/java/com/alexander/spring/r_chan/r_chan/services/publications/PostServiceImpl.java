@@ -1,33 +1,64 @@
 package com.alexander.spring.r_chan.r_chan.services.publications;
 
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.FeedCursor;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SliceDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SparseFields;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.IndexThreadDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostBatchDTO;
 import com.alexander.spring.r_chan.r_chan.dtos.publications.PostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostSummaryDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostSummaryDTO;
 import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
 import com.alexander.spring.r_chan.r_chan.enums.FileStatus;
 import com.alexander.spring.r_chan.r_chan.entity.Post;
+import com.alexander.spring.r_chan.r_chan.entity.RePost;
 import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
 import com.alexander.spring.r_chan.r_chan.exceptions.PostNotFoundException;
+import com.alexander.spring.r_chan.r_chan.repository.PostFieldsRepository;
 import com.alexander.spring.r_chan.r_chan.repository.PostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.RePostRepository;
 import com.alexander.spring.r_chan.r_chan.repository.SectionRepository;
+import com.alexander.spring.r_chan.r_chan.repository.projection.PostReplyCount;
 import com.alexander.spring.r_chan.r_chan.services.moderation.auto_validation.ContentValidationService;
+import com.alexander.spring.r_chan.r_chan.services.publications.cache.SectionFeedCache;
+import com.alexander.spring.r_chan.r_chan.services.publications.changes.PublicationChangeService;
+import com.alexander.spring.r_chan.r_chan.services.publications.numbers.PostNumberService;
+import com.alexander.spring.r_chan.r_chan.services.publications.references.PostReferenceService;
 import com.alexander.spring.r_chan.r_chan.services.publications.sections.SectionService;
 import com.alexander.spring.r_chan.r_chan.services.storage.FileStorageServiceImpl;
 import com.alexander.spring.r_chan.r_chan.services.moderation.logs.ModerationLogService;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @Transactional
 public class PostServiceImpl implements PostService{
 
+    private static final List<ApprovalStatus> APPROVED_STATUSES =
+            List.of(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED);
+
     @Autowired
     private SectionService sectionService;
 
@@ -37,6 +68,15 @@ public class PostServiceImpl implements PostService{
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private RePostRepository rePostRepository;
+
+    @Autowired
+    private PostNumberService postNumberService;
+
+    @Autowired
+    private PostReferenceService postReferenceService;
+
     @Autowired
     private SectionRepository sectionRepository;
 
@@ -46,25 +86,51 @@ public class PostServiceImpl implements PostService{
     @Autowired
     private ModerationLogService moderationLogService;
 
+    @Autowired
+    private PublicationChangeService publicationChangeService;
+
+    @Autowired
+    private SectionFeedCache sectionFeedCache;
+
+    //Los posts anteriores a las columnas content_preview y last_bumped_at se completan al arrancar.
+    //Una vez completados solo cuesta dos EXISTS; los UPDATE se lanzan únicamente si quedan filas sin valor
+    @PostConstruct
+    public void backfillDerivedColumns() {
+        if (postRepository.existsByContentPreviewIsNullAndContentIsNotNull()) {
+            postRepository.backfillContentPreviews(Post.PREVIEW_LENGTH);
+        }
+        if (postRepository.existsByLastBumpedAtIsNull()) {
+            postRepository.backfillLastBumpedAt(APPROVED_STATUSES);
+        }
+    }
+
     @Override
     public Page<PostDTO> findAll(Pageable pageable) {
-        return postRepository.findAll(pageable).map(PostDTO::new);
+        return toFeedPage(postRepository.findAll(pageable));
     }
 
     @Override
-    public Page<PostDTO> findAllApproved(Pageable pageable) {
-        return postRepository.findAllApproved(
+    public Page<PostSummaryDTO> findAllApproved(Pageable pageable) {
+        return withReplyCounts(postRepository.findAllApproved(
                 Arrays.asList(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED),
                 pageable
-        ).map(PostDTO::new);
+        ));
     }
 
     @Override
     public PostDTO findById(UUID id) {
-        return new PostDTO(postRepository.findById(id)
+        return toDTO(postRepository.findById(id)
                 .orElseThrow(() -> new PostNotFoundException(id)));
     }
 
+    @Override
+    public PostDTO findByNumber(long number) {
+        //A diferencia de los UUID, los números se pueden recorrer: solo se exponen posts visibles
+        return toDTO(postRepository.findByNumber(number)
+                .filter(post -> post.getApprovalStatus() != null && post.getApprovalStatus().isPublic())
+                .orElseThrow(() -> new PostNotFoundException(number)));
+    }
+
     @Override
     public Post findByIdE(UUID id) {
         return postRepository.findById(id)
@@ -72,12 +138,131 @@ public class PostServiceImpl implements PostService{
     }
 
     @Override
-    public Page<PostDTO> findBySectionType(SectionEnum sectionEnumType, Pageable pageable) {
-        return postRepository.findBySection_SectionTypeAndApprovalStatusIn(
-                sectionEnumType,
-                Arrays.asList(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED),
-                pageable
-        ).map(PostDTO::new);
+    public Page<PostSummaryDTO> findBySectionType(SectionEnum sectionEnumType, Pageable pageable) {
+        //Las primeras páginas de cada sección se sirven desde la caché
+        return sectionFeedCache.get(sectionEnumType, pageable, () -> withReplyCounts(
+                postRepository.findBySection_SectionTypeAndApprovalStatusIn(
+                        sectionEnumType,
+                        Arrays.asList(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED),
+                        pageable
+                )));
+    }
+
+    @Override
+    public Page<IndexThreadDTO> findIndex(SectionEnum sectionType, Pageable pageable, int replies) {
+        //La página sale del mismo camino que el feed (incluida la caché); las respuestas se agregan con una consulta más
+        Page<PostSummaryDTO> page = sectionType != null
+                ? findBySectionType(sectionType, pageable)
+                : findAllApproved(pageable);
+        Map<UUID, List<RePostSummaryDTO>> lastReplies =
+                lastApprovedReplies(page.getContent().stream().map(PostSummaryDTO::getId).toList(), replies);
+        return page.map(post -> new IndexThreadDTO(post, lastReplies.getOrDefault(post.getId(), List.of())));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findApprovedFields(SectionEnum sectionType, List<String> fields, Pageable pageable) {
+        return findFields(fields, sectionType, APPROVED_STATUSES, pageable);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Pageable pageable) {
+        return findFields(fields, null, null, pageable);
+    }
+
+    @Override
+    public SliceDTO<PostSummaryDTO> sliceAllApproved(Pageable pageable) {
+        return withReplyCounts(postRepository.findAllApprovedSlice(APPROVED_STATUSES, pageable));
+    }
+
+    @Override
+    public SliceDTO<PostSummaryDTO> sliceBySectionType(SectionEnum sectionEnumType, Pageable pageable) {
+        return withReplyCounts(postRepository.findBySectionTypeApprovedSlice(sectionEnumType, APPROVED_STATUSES, pageable));
+    }
+
+    @Override
+    public CursorPageDTO<PostSummaryDTO> scrollAllApproved(String sort, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor, sort, FeedCursor.POST_SORTABLE_FIELDS);
+        int limit = FeedCursor.clampSize(size);
+        boolean byBump = FeedCursor.LAST_BUMPED_AT.equals(sort);
+
+        //Se pide una fila extra para saber si hay página siguiente sin ejecutar COUNT
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        List<PostSummaryDTO> rows;
+        if (byBump) {
+            rows = after == null
+                    ? postRepository.findAllApprovedByBumpFirst(APPROVED_STATUSES, fetch)
+                    : postRepository.findAllApprovedByBumpAfter(APPROVED_STATUSES, after.getValue(), after.getId(), fetch);
+        } else {
+            rows = after == null
+                    ? postRepository.findAllApprovedFirst(APPROVED_STATUSES, fetch)
+                    : postRepository.findAllApprovedAfter(APPROVED_STATUSES, after.getValue(), after.getId(), fetch);
+        }
+
+        return withReplyCounts(toCursorPage(rows, limit, sort, byBump));
+    }
+
+    @Override
+    public CursorPageDTO<PostSummaryDTO> scrollBySectionType(SectionEnum sectionEnumType, String sort, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor, sort, FeedCursor.POST_SORTABLE_FIELDS);
+        int limit = FeedCursor.clampSize(size);
+        boolean byBump = FeedCursor.LAST_BUMPED_AT.equals(sort);
+
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        List<PostSummaryDTO> rows;
+        if (byBump) {
+            rows = after == null
+                    ? postRepository.findBySectionTypeApprovedByBumpFirst(sectionEnumType, APPROVED_STATUSES, fetch)
+                    : postRepository.findBySectionTypeApprovedByBumpAfter(sectionEnumType, APPROVED_STATUSES,
+                            after.getValue(), after.getId(), fetch);
+        } else {
+            rows = after == null
+                    ? postRepository.findBySectionTypeApprovedFirst(sectionEnumType, APPROVED_STATUSES, fetch)
+                    : postRepository.findBySectionTypeApprovedAfter(sectionEnumType, APPROVED_STATUSES,
+                            after.getValue(), after.getId(), fetch);
+        }
+
+        return withReplyCounts(toCursorPage(rows, limit, sort, byBump));
+    }
+
+    @Override
+    public List<PostSummaryDTO> findSummariesByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<PostSummaryDTO> posts = postRepository.findSummariesByIds(ids, APPROVED_STATUSES);
+        fillReplyCounts(posts);
+        return posts;
+    }
+
+    @Override
+    public List<PostSummaryDTO> findCatalog(SectionEnum sectionType, int limit) {
+        //Todos los hilos vivos de la sección en orden de bump, hasta el tope del catálogo
+        List<PostSummaryDTO> posts = postRepository.findBySectionTypeApprovedByBumpFirst(
+                sectionType, APPROVED_STATUSES, PageRequest.of(0, limit));
+        fillReplyCounts(posts);
+        return posts;
+    }
+
+    @Override
+    public PostBatchDTO findBatch(List<UUID> ids) {
+        //Un solo IN con los ids sin repetir; el orden de la respuesta es el de la petición
+        Set<UUID> uniqueIds = new LinkedHashSet<>(ids);
+        Map<UUID, PostSummaryDTO> found = new HashMap<>();
+        for (PostSummaryDTO post : findSummariesByIds(uniqueIds)) {
+            found.put(post.getId(), post);
+        }
+
+        List<PostSummaryDTO> posts = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : uniqueIds) {
+            PostSummaryDTO post = found.get(id);
+            if (post != null) {
+                posts.add(post);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new PostBatchDTO(posts, missing);
     }
 
     @Override
@@ -111,11 +296,15 @@ public class PostServiceImpl implements PostService{
             post.setReplyCount(0);
         }
 
+        post.setNumber(postNumberService.next());
+
         if(post.getFileStatus() == null){
             post.setFileStatus(FileStatus.VISIBLE);
         }
 
         Post postS = postRepository.save(post);
+        postReferenceService.indexReferences(postS.getId(), postS.getNumber(), postS.getId(), postS.getContent());
+        notifyIfPublic(postS);
 
         //Log de creación
         Map<String, Object> logDetails = new HashMap<>();
@@ -126,7 +315,7 @@ public class PostServiceImpl implements PostService{
 
         moderationLogService.logPostCreated(postS.getId(), logDetails);
 
-        return new PostDTO(postS);
+        return toDTO(postS);
     }
 
     @Override
@@ -160,11 +349,17 @@ public class PostServiceImpl implements PostService{
             post.setReplyCount(0);
         }
 
+        post.setNumber(postNumberService.next());
+
         if(post.getFileStatus() == null){
             post.setFileStatus(FileStatus.VISIBLE);
         }
 
-        return new PostDTO(postRepository.save(post));
+        Post postS = postRepository.save(post);
+        postReferenceService.indexReferences(postS.getId(), postS.getNumber(), postS.getId(), postS.getContent());
+        notifyIfPublic(postS);
+
+        return toDTO(postS);
     }
 
     @Override
@@ -180,6 +375,9 @@ public class PostServiceImpl implements PostService{
         oldValues.put("fileStatus", postDB.getFileStatus());
         oldValues.put("section", postDB.getSection() != null ? postDB.getSection().getSectionType() : null);
 
+        boolean wasPublic = isPublic(postDB);
+        SectionEnum oldSectionType = postDB.getSection().getSectionType();
+
         //Si se especifica una nueva sección
         if (post.getSection() != null) {
             com.alexander.spring.r_chan.r_chan.entity.Section newSection = sectionService.findByIdE(post.getSection().getId());
@@ -236,6 +434,11 @@ public class PostServiceImpl implements PostService{
         }
 
         Post postS = postRepository.save(postDB);
+        if (post.getContent() != null) {
+            postReferenceService.indexReferences(id, postS.getNumber(), id, postS.getContent());
+        } else if (wasPublic != isPublic(postS)) {
+            postReferenceService.sourceVisibilityChanged(id, id);
+        }
 
         //Log de actualización
         Map<String, Object> newValues = new HashMap<>();
@@ -247,7 +450,15 @@ public class PostServiceImpl implements PostService{
 
         moderationLogService.logPostUpdated(id, oldValues, newValues);
 
-        return new PostDTO(postS);
+        //El feed cambia si el post era visible o pasa a serlo (aprobación, edición o cambio de sección)
+        if (wasPublic || isPublic(postS)) {
+            publicationChangeService.postChanged(postS.getSection().getSectionType(), id);
+            if (wasPublic && oldSectionType != postS.getSection().getSectionType()) {
+                publicationChangeService.postChanged(oldSectionType, id);
+            }
+        }
+
+        return toDTO(postS);
     }
 
     @Override
@@ -277,12 +488,121 @@ public class PostServiceImpl implements PostService{
         sectionRepository.save(section);
 
         //Eliminar el post
+        postReferenceService.removeThread(id);
         postRepository.delete(postD);
 
+        if (isPublic(postD)) {
+            publicationChangeService.threadDeleted(section.getSectionType(), id);
+        }
+
         //Log de eliminación
         moderationLogService.logPostDeleted(id, postDetails);
     }
 
+    private PostDTO toDTO(Post post) {
+        //reply_count cuenta todas las respuestas (también pendientes); si es 0 no hace falta consultar
+        if (post.getReplyCount() == null || post.getReplyCount() == 0) {
+            return new PostDTO(post, 0);
+        }
+        long replies = rePostRepository.countByPost_IdAndApprovalStatusIn(post.getId(), APPROVED_STATUSES);
+        return new PostDTO(post, (int) replies);
+    }
+
+    //Una página del feed cuesta siempre las mismas consultas: la proyección, su COUNT (si es Page) y un conteo agrupado
+    private Page<PostSummaryDTO> withReplyCounts(Page<PostSummaryDTO> page) {
+        fillReplyCounts(page.getContent());
+        return page;
+    }
+
+    private SliceDTO<PostSummaryDTO> withReplyCounts(Slice<PostSummaryDTO> slice) {
+        fillReplyCounts(slice.getContent());
+        return new SliceDTO<>(slice);
+    }
+
+    private CursorPageDTO<PostSummaryDTO> withReplyCounts(CursorPageDTO<PostSummaryDTO> page) {
+        fillReplyCounts(page.getContent());
+        return page;
+    }
+
+    //Listado de moderación: entidades completas, con el mismo conteo agrupado
+    private Page<PostDTO> toFeedPage(Page<Post> page) {
+        Map<UUID, Integer> replyCounts = approvedReplyCounts(page.getContent().stream().map(Post::getId).toList());
+        return page.map(post -> new PostDTO(post, replyCounts.getOrDefault(post.getId(), 0)));
+    }
+
+    private CursorPageDTO<PostSummaryDTO> toCursorPage(List<PostSummaryDTO> rows, int limit, String sort, boolean byBump) {
+        Function<PostSummaryDTO, LocalDateTime> valueOf = byBump
+                ? PostSummaryDTO::getLastBumpedAt
+                : PostSummaryDTO::getCreatedDate;
+        return FeedCursor.toPage(rows, limit, sort, valueOf, PostSummaryDTO::getId);
+    }
+
+    //Solo se leen las columnas pedidas; replyCount se resuelve con el mismo conteo agrupado de los resúmenes
+    private Page<Map<String, Object>> findFields(List<String> fields, SectionEnum sectionType,
+                                                 List<ApprovalStatus> statuses, Pageable pageable) {
+        List<String> columns = fields.stream().filter(field -> !PostFieldsRepository.REPLY_COUNT.equals(field)).toList();
+        Page<Map<String, Object>> page = postRepository.findFields(columns, sectionType, statuses, pageable);
+        if (columns.size() == fields.size()) {
+            return page;
+        }
+
+        Map<UUID, Integer> replyCounts = approvedReplyCounts(
+                page.getContent().stream().map(row -> (UUID) row.get(SparseFields.ID)).toList());
+        return page.map(row -> {
+            Map<String, Object> ordered = new LinkedHashMap<>();
+            for (String field : fields) {
+                ordered.put(field, PostFieldsRepository.REPLY_COUNT.equals(field)
+                        ? replyCounts.getOrDefault((UUID) row.get(SparseFields.ID), 0)
+                        : row.get(field));
+            }
+            return ordered;
+        });
+    }
+
+    private Map<UUID, List<RePostSummaryDTO>> lastApprovedReplies(List<UUID> postIds, int perPost) {
+        Map<UUID, List<RePostSummaryDTO>> replies = new HashMap<>();
+        if (postIds.isEmpty() || perPost <= 0) {
+            return replies;
+        }
+
+        List<String> statuses = APPROVED_STATUSES.stream().map(Enum::name).toList();
+        for (RePost rePost : rePostRepository.findLastApprovedByPostIds(postIds, statuses, perPost)) {
+            replies.computeIfAbsent(rePost.getPost().getId(), id -> new ArrayList<>()).add(new RePostSummaryDTO(rePost));
+        }
+
+        //La consulta elige las más recientes; en el índice se muestran en orden de llegada
+        replies.values().forEach(list -> list.sort(
+                Comparator.comparing(RePostSummaryDTO::getCreatedDate).thenComparing(RePostSummaryDTO::getId)));
+        return replies;
+    }
+
+    private void fillReplyCounts(List<PostSummaryDTO> posts) {
+        Map<UUID, Integer> replyCounts = approvedReplyCounts(posts.stream().map(PostSummaryDTO::getId).toList());
+        posts.forEach(post -> post.setReplyCount(replyCounts.getOrDefault(post.getId(), 0)));
+    }
+
+    private Map<UUID, Integer> approvedReplyCounts(List<UUID> postIds) {
+        Map<UUID, Integer> replyCounts = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return replyCounts;
+        }
+
+        for (PostReplyCount row : rePostRepository.countApprovedByPostIds(postIds, APPROVED_STATUSES)) {
+            replyCounts.put(row.getPostId(), row.getReplyCount().intValue());
+        }
+        return replyCounts;
+    }
+
+    private void notifyIfPublic(Post post) {
+        if (isPublic(post)) {
+            publicationChangeService.postChanged(post.getSection().getSectionType(), post.getId());
+        }
+    }
+
+    private boolean isPublic(Post post) {
+        return post.getApprovalStatus() != null && post.getApprovalStatus().isPublic();
+    }
+
     private boolean hasFile(Post post) {
         return post.getFileType() != null &&
                 post.getFileUrl() != null &&
@@ -1,20 +1,30 @@
 package com.alexander.spring.r_chan.r_chan.services.publications;
 
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SliceDTO;
 import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostSummaryDTO;
 import com.alexander.spring.r_chan.r_chan.entity.RePost;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface RePostService {
     Page<RePostDTO> findAll(Pageable pageable);
-    Page<RePostDTO> findAllApproved(Pageable pageable);
+    Page<RePostSummaryDTO> findAllApproved(Pageable pageable);
+    Page<Map<String, Object>> findApprovedFields(List<String> fields, Pageable pageable);
     RePostDTO findById(UUID id);
+    RePostSummaryDTO findByNumber(long number);
     RePostDTO findByPostId(UUID id);
     Page<RePostDTO> findByPostId(UUID postId, Pageable pageable);
+    SliceDTO<RePostSummaryDTO> sliceAllApproved(Pageable pageable);
+    CursorPageDTO<RePostSummaryDTO> scrollAllApproved(String sort, String cursor, int size);
+    CursorPageDTO<RePostSummaryDTO> scrollByPostId(UUID postId, String sort, String cursor, int size);
     RePost findByIdE(UUID id);
-    RePostDTO saveRePost(RePost rePost);
+    RePostDTO saveRePost(RePost rePost, String clientAddress);
     RePostDTO updateRePost(UUID id, RePost rePost);
     void delete(UUID id);
 }
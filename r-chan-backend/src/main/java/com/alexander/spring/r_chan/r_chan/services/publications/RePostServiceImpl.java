@@ -1,28 +1,49 @@
 package com.alexander.spring.r_chan.r_chan.services.publications;
 
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.FeedCursor;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.SliceDTO;
 import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostSummaryDTO;
 import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
 import com.alexander.spring.r_chan.r_chan.enums.FileStatus;
+import com.alexander.spring.r_chan.r_chan.entity.Post;
 import com.alexander.spring.r_chan.r_chan.entity.RePost;
+import com.alexander.spring.r_chan.r_chan.exceptions.PostNotFoundException;
 import com.alexander.spring.r_chan.r_chan.exceptions.RePostNotFoundException;
 import com.alexander.spring.r_chan.r_chan.repository.PostRepository;
 import com.alexander.spring.r_chan.r_chan.repository.RePostRepository;
 import com.alexander.spring.r_chan.r_chan.services.moderation.auto_validation.ContentValidationService;
+import com.alexander.spring.r_chan.r_chan.services.publications.changes.PublicationChangeService;
+import com.alexander.spring.r_chan.r_chan.services.publications.numbers.PostNumberService;
+import com.alexander.spring.r_chan.r_chan.services.publications.posters.PosterCountService;
+import com.alexander.spring.r_chan.r_chan.services.publications.references.PostReferenceService;
 import com.alexander.spring.r_chan.r_chan.services.storage.FileStorageServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 @Transactional
 public class RePostServiceImpl implements RePostService {
 
+    private static final List<ApprovalStatus> APPROVED_STATUSES =
+            List.of(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED);
+
     @Autowired
     private RePostRepository rePostRepository;
 
@@ -35,17 +56,41 @@ public class RePostServiceImpl implements RePostService {
     @Autowired
     private ContentValidationService contentValidationService;
 
+    @Autowired
+    private PublicationChangeService publicationChangeService;
+
+    @Autowired
+    private PostNumberService postNumberService;
+
+    @Autowired
+    private PostReferenceService postReferenceService;
+
+    @Autowired
+    private PosterCountService posterCountService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //Bump limit de las secciones que no definen uno propio
+    @Value("${app.thread.bump_limit:300}")
+    private int defaultBumpLimit;
+
     @Override
     public Page<RePostDTO> findAll(Pageable pageable) {
         return rePostRepository.findAll(pageable).map(RePostDTO::new);
     }
 
     @Override
-    public Page<RePostDTO> findAllApproved(Pageable pageable) {
+    public Page<RePostSummaryDTO> findAllApproved(Pageable pageable) {
         return rePostRepository.findAllApproved(
                 Arrays.asList(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED),
                 pageable
-        ).map(RePostDTO::new);
+        );
+    }
+
+    @Override
+    public Page<Map<String, Object>> findApprovedFields(List<String> fields, Pageable pageable) {
+        return rePostRepository.findFields(fields, APPROVED_STATUSES, pageable);
     }
 
     @Override
@@ -55,6 +100,15 @@ public class RePostServiceImpl implements RePostService {
         return new RePostDTO(rePostDB);
     }
 
+    @Override
+    public RePostSummaryDTO findByNumber(long number) {
+        //A diferencia de los UUID, los números se pueden recorrer: solo se exponen respuestas visibles
+        RePost rePostDB = rePostRepository.findByNumber(number)
+                .filter(this::isPublic)
+                .orElseThrow(() -> new RePostNotFoundException(number));
+        return new RePostSummaryDTO(rePostDB);
+    }
+
     @Override
     public RePostDTO findByPostId(UUID id) {
         RePost rePostDB = rePostRepository.findByPostId(id)
@@ -67,6 +121,39 @@ public class RePostServiceImpl implements RePostService {
         return rePostRepository.findByPostId(postId, pageable).map(RePostDTO::new);
     }
 
+    @Override
+    public SliceDTO<RePostSummaryDTO> sliceAllApproved(Pageable pageable) {
+        return new SliceDTO<>(rePostRepository.findAllApprovedSlice(APPROVED_STATUSES, pageable));
+    }
+
+    @Override
+    public CursorPageDTO<RePostSummaryDTO> scrollAllApproved(String sort, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor, sort);
+        int limit = FeedCursor.clampSize(size);
+
+        //Se pide una fila extra para saber si hay página siguiente sin ejecutar COUNT
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        List<RePostSummaryDTO> rows = after == null
+                ? rePostRepository.findAllApprovedFirst(APPROVED_STATUSES, fetch)
+                : rePostRepository.findAllApprovedAfter(APPROVED_STATUSES, after.getValue(), after.getId(), fetch);
+
+        return FeedCursor.toPage(rows, limit, sort, RePostSummaryDTO::getCreatedDate, RePostSummaryDTO::getId);
+    }
+
+    @Override
+    public CursorPageDTO<RePostSummaryDTO> scrollByPostId(UUID postId, String sort, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor, sort);
+        int limit = FeedCursor.clampSize(size);
+
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        List<RePostSummaryDTO> rows = after == null
+                ? rePostRepository.findByPostIdApprovedFirst(postId, APPROVED_STATUSES, fetch)
+                : rePostRepository.findByPostIdApprovedAfter(postId, APPROVED_STATUSES,
+                        after.getValue(), after.getId(), fetch);
+
+        return FeedCursor.toPage(rows, limit, sort, RePostSummaryDTO::getCreatedDate, RePostSummaryDTO::getId);
+    }
+
     @Override
     public RePost findByIdE(UUID id) {
         return rePostRepository.findById(id)
@@ -74,7 +161,7 @@ public class RePostServiceImpl implements RePostService {
     }
 
     @Override
-    public RePostDTO saveRePost(RePost rePost) {
+    public RePostDTO saveRePost(RePost rePost, String clientAddress) {
         if (hasFile(rePost)) {
             rePost.setApprovalStatus(ApprovalStatus.PENDING);
         } else {
@@ -90,11 +177,28 @@ public class RePostServiceImpl implements RePostService {
             rePost.setFileStatus(FileStatus.VISIBLE);
         }
 
-        var post = rePost.getPost();
+        rePost.setNumber(postNumberService.next());
+
+        var post = lockPost(rePost.getPost().getId());
+        rePost.setPost(post);
         post.setReplyCount(post.getReplyCount() + 1);
+        rePost.setPosterHash(posterCountService.posterHash(post, clientAddress));
+        if (isPublic(rePost)) {
+            posterCountService.addPoster(post, rePost.getPosterHash());
+        }
+
+        //Solo las respuestas visibles suben el hilo, y solo hasta el bump limit de su sección.
+        //La nueva todavía no está guardada: se cuentan las aprobadas que ya tenía
+        if (isPublic(rePost) && approvedRepliesOf(post) < bumpLimitOf(post)) {
+            post.setLastBumpedAt(LocalDateTime.now());
+        }
         postRepository.save(post);
 
         RePost rePostS = rePostRepository.save(rePost);
+        postReferenceService.indexReferences(rePostS.getId(), rePostS.getNumber(), post.getId(), rePostS.getContent());
+        if (isPublic(rePostS)) {
+            notifyReplyChanged(post, rePostS.getId());
+        }
         return new RePostDTO(rePostS);
     }
 
@@ -102,6 +206,9 @@ public class RePostServiceImpl implements RePostService {
         RePost existingRePost = rePostRepository.findById(id)
                 .orElseThrow(() -> new RePostNotFoundException(id));
 
+        boolean wasPublic = isPublic(existingRePost);
+        var oldPost = existingRePost.getPost();
+
         //Aplicar actualizaciones
         if (repostUpdates.getPost() != null) {
             existingRePost.setPost(repostUpdates.getPost());
@@ -123,6 +230,32 @@ public class RePostServiceImpl implements RePostService {
         }
 
         RePost updated = rePostRepository.save(existingRePost);
+
+        //Una respuesta que se aprueba ahora cuenta como si acabara de llegar: sube el hilo (ya está
+        //entre las aprobadas) y su autor entra en los posters únicos
+        if (!wasPublic && isPublic(updated)) {
+            var post = lockPost(updated.getPost().getId());
+            if (approvedRepliesOf(post) <= bumpLimitOf(post)) {
+                post.setLastBumpedAt(LocalDateTime.now());
+            }
+            posterCountService.addPoster(post, updated.getPosterHash());
+            postRepository.save(post);
+        }
+
+        if (repostUpdates.getContent() != null || repostUpdates.getPost() != null) {
+            postReferenceService.indexReferences(id, updated.getNumber(), updated.getPost().getId(), updated.getContent());
+        } else if (wasPublic != isPublic(updated)) {
+            postReferenceService.sourceVisibilityChanged(id, updated.getPost().getId());
+        }
+
+        //El hilo cambia si la respuesta era visible o pasa a serlo (aprobación, edición o cambio de hilo)
+        if (wasPublic || isPublic(updated)) {
+            notifyReplyChanged(updated.getPost(), id);
+            if (wasPublic && !oldPost.getId().equals(updated.getPost().getId())) {
+                notifyReplyChanged(oldPost, id);
+            }
+        }
+
         return new RePostDTO(updated);
     }
 
@@ -143,7 +276,39 @@ public class RePostServiceImpl implements RePostService {
             }
         }
 
+        postReferenceService.removeSource(id);
         rePostRepository.delete(rePostDB);
+
+        if (isPublic(rePostDB)) {
+            notifyReplyChanged(post, id);
+        }
+    }
+
+    //SELECT ... FOR UPDATE y estado releído: el post que llega del controlador se leyó antes de subir el archivo,
+    //y dos respuestas simultáneas guardándolo entero perderían cada una el contador y los registros del sketch de la otra
+    private Post lockPost(UUID postId) {
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new PostNotFoundException(postId));
+        entityManager.refresh(post, LockModeType.PESSIMISTIC_WRITE);
+        return post;
+    }
+
+    //reply_count incluye pendientes y rechazadas; el bump limit se compara con las visibles
+    private long approvedRepliesOf(Post post) {
+        return rePostRepository.countByPost_IdAndApprovalStatusIn(post.getId(), APPROVED_STATUSES);
+    }
+
+    private int bumpLimitOf(Post post) {
+        Integer sectionLimit = post.getSection().getBumpLimit();
+        return sectionLimit != null ? sectionLimit : defaultBumpLimit;
+    }
+
+    private void notifyReplyChanged(Post post, UUID rePostId) {
+        publicationChangeService.replyChanged(post.getSection().getSectionType(), post.getId(), rePostId);
+    }
+
+    private boolean isPublic(RePost rePost) {
+        return rePost.getApprovalStatus() != null && rePost.getApprovalStatus().isPublic();
     }
 
     /**
@@ -0,0 +1,11 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.archive;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+public interface ThreadArchiveService {
+    boolean archive(UUID postId);
+    void publish(UUID postId);
+    void discard(UUID postId);
+    Path findArchived(UUID postId);
+}
@@ -0,0 +1,182 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.archive;
+
+import com.alexander.spring.r_chan.r_chan.dtos.publications.ArchivedThreadDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.BacklinkDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostSummaryDTO;
+import com.alexander.spring.r_chan.r_chan.entity.Post;
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.exceptions.PostNotFoundException;
+import com.alexander.spring.r_chan.r_chan.repository.PostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.RePostRepository;
+import com.alexander.spring.r_chan.r_chan.services.publications.references.PostReferenceService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archivo estático de hilos podados: cada hilo se serializa una sola vez a un JSON comprimido con gzip
+ * dentro del directorio de almacenamiento (archive/xx/{id}.json.gz) y después se sirve tal cual,
+ * sin consultas a la base de datos. Los adjuntos no se archivan: la poda los libera.
+ * El archivo se prepara con un nombre provisional y solo se publica cuando el borrado del hilo
+ * hizo commit: un hilo que sigue vivo (o que moderación oculta después) nunca se sirve desde aquí.
+ */
+@Service
+public class ThreadArchiveServiceImpl implements ThreadArchiveService {
+
+    private static final List<ApprovalStatus> APPROVED_STATUSES =
+            List.of(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED);
+
+    private static final String EXTENSION = ".json.gz";
+    private static final String STAGED_EXTENSION = EXTENSION + ".staged";
+    private static final int REPLY_BATCH = 500;
+    private static final int BACKLINK_BATCH = 1000;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private RePostRepository rePostRepository;
+
+    @Autowired
+    private PostReferenceService postReferenceService;
+
+    private final Path archiveDirectory;
+    private final ObjectMapper objectMapper;
+
+    public ThreadArchiveServiceImpl(
+            @Value("${app.settings.storage_directory}") String storageDirectory,
+            ObjectProvider<ObjectMapper> objectMapperProvider) {
+        //Misma normalización que FileStorageServiceImpl para rutas de Windows/Linux
+        this.archiveDirectory = Paths.get(storageDirectory.replace("\\", "/"), "archive").toAbsolutePath().normalize();
+        this.objectMapper = objectMapperProvider.getIfAvailable(ObjectMapper::new);
+
+        try {
+            Files.createDirectories(archiveDirectory);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo crear el directorio: " + archiveDirectory, e);
+        }
+    }
+
+    /**
+     * Renderiza el hilo a su archivo provisional. Se escribe en un temporal y se mueve al final,
+     * así que publish nunca mueve un archivo a medias.
+     * @return false si el hilo no existe o no es público.
+     */
+    @Override
+    public boolean archive(UUID postId) {
+        List<Object[]> rows = postRepository.findThreadFirst(postId, APPROVED_STATUSES, PageRequest.of(0, 1));
+        if (rows.isEmpty()) {
+            return false;
+        }
+        Post post = (Post) rows.get(0)[0];
+        long replyCount = rePostRepository.countByPost_IdAndApprovalStatusIn(postId, APPROVED_STATUSES);
+
+        PostDTO postDTO = new PostDTO(post, (int) replyCount);
+        postDTO.setFileUrl(null);
+        List<RePostSummaryDTO> replies = findAllReplies(postId);
+
+        List<UUID> messageIds = new ArrayList<>(replies.size() + 1);
+        messageIds.add(postId);
+        replies.forEach(reply -> messageIds.add(reply.getId()));
+
+        ArchivedThreadDTO archived = new ArchivedThreadDTO(postDTO, replies, findBacklinks(messageIds), LocalDateTime.now());
+
+        Path target = stagedPathOf(postId);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), postId.toString(), ".tmp");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    objectMapper.writeValue(out, archived);
+                }
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error archiving thread " + postId, e);
+        }
+        return true;
+    }
+
+    //Tras el commit del borrado: desde aquí el hilo se sirve desde el archivo
+    @Override
+    public void publish(UUID postId) {
+        try {
+            Files.move(stagedPathOf(postId), pathOf(postId), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error publishing archived thread " + postId, e);
+        }
+    }
+
+    //El borrado no se hizo (el hilo cambió o hubo rollback): el hilo sigue vivo y su copia no vale
+    @Override
+    public void discard(UUID postId) {
+        try {
+            Files.deleteIfExists(stagedPathOf(postId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error discarding archived thread " + postId, e);
+        }
+    }
+
+    @Override
+    public Path findArchived(UUID postId) {
+        Path path = pathOf(postId);
+        if (!Files.isRegularFile(path)) {
+            throw new PostNotFoundException(postId);
+        }
+        return path;
+    }
+
+    //Todas las respuestas, por keyset: un hilo archivado no se pagina
+    private List<RePostSummaryDTO> findAllReplies(UUID postId) {
+        List<RePostSummaryDTO> replies = new ArrayList<>();
+        List<RePostSummaryDTO> batch = rePostRepository.findByPostIdApprovedFirst(postId, APPROVED_STATUSES,
+                PageRequest.of(0, REPLY_BATCH));
+        while (true) {
+            batch.forEach(reply -> reply.setFileUrl(null));
+            replies.addAll(batch);
+            if (batch.size() < REPLY_BATCH) {
+                return replies;
+            }
+            RePostSummaryDTO last = batch.get(batch.size() - 1);
+            batch = rePostRepository.findByPostIdApprovedAfter(postId, APPROVED_STATUSES,
+                    last.getCreatedDate(), last.getId(), PageRequest.of(0, REPLY_BATCH));
+        }
+    }
+
+    private Map<UUID, List<BacklinkDTO>> findBacklinks(List<UUID> messageIds) {
+        Map<UUID, List<BacklinkDTO>> backlinks = new HashMap<>();
+        for (int from = 0; from < messageIds.size(); from += BACKLINK_BATCH) {
+            List<UUID> chunk = messageIds.subList(from, Math.min(from + BACKLINK_BATCH, messageIds.size()));
+            backlinks.putAll(postReferenceService.findBacklinks(chunk));
+        }
+        return backlinks;
+    }
+
+    //Un subdirectorio por los dos primeros caracteres del id para no acumular todo en uno
+    private Path pathOf(UUID postId) {
+        String id = postId.toString();
+        return archiveDirectory.resolve(id.substring(0, 2)).resolve(id + EXTENSION);
+    }
+
+    private Path stagedPathOf(UUID postId) {
+        String id = postId.toString();
+        return archiveDirectory.resolve(id.substring(0, 2)).resolve(id + STAGED_EXTENSION);
+    }
+}
@@ -0,0 +1,239 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuestas JSON ya serializadas (y ya comprimidas con gzip) de las páginas y los hilos más pedidos.
+ * Los bytes guardados viven fuera del heap en buffers directos de solo lectura; las vistas que no se
+ * guardan se serializan en el heap y solo se comprimen si el cliente acepta gzip. Cada entrada guarda el ETag
+ * con el que se generó: si la versión de la sección o del hilo avanzó, el ETag ya no coincide y la
+ * entrada se reemplaza, así que invalidar no cuesta nada.
+ */
+@Component
+public class RenderedResponseCache {
+
+    private static final List<MediaType> BINARY_TYPES =
+            List.of(MediaType.APPLICATION_CBOR, MediaType.valueOf("application/x-jackson-smile"));
+
+    private final ObjectMapper objectMapper;
+    private final int maxPages;
+    private final int maxPageSize;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder gzipResponses = new LongAdder();
+
+    public RenderedResponseCache(
+            ObjectProvider<ObjectMapper> objectMapperProvider,
+            @Value("${app.cache.rendered_pages:3}") int maxPages,
+            @Value("${app.cache.rendered_max_page_size:50}") int maxPageSize,
+            @Value("${app.cache.rendered_max_bytes:67108864}") long maxBytes) {
+        //El mismo mapper que usan los conversores de Spring, para que el JSON sea idéntico
+        this.objectMapper = objectMapperProvider.getIfAvailable(ObjectMapper::new);
+        this.maxPages = maxPages;
+        this.maxPageSize = maxPageSize;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 8;
+    }
+
+    //Solo las primeras páginas tienen suficiente tráfico para justificar la memoria
+    public boolean isHotPage(Pageable pageable) {
+        return pageable.getPageNumber() < maxPages && pageable.getPageSize() <= maxPageSize;
+    }
+
+    //Los bytes guardados son JSON; si el cliente pide CBOR o Smile la respuesta pasa por los conversores normales
+    public boolean servesJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return true;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .noneMatch(type -> BINARY_TYPES.stream().anyMatch(type::equalsTypeAndSubtype));
+        } catch (InvalidMediaTypeException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Escribe la respuesta directamente en el stream del servlet.
+     * @param key Identifica la vista (sección, página, tamaño, orden) sin la versión.
+     * @param versionETag Lee el ETag actual de la vista; una entrada con otro ETag está obsoleta.
+     * @param cacheable false para vistas poco pedidas: se serializan sin guardarse.
+     * @param body Genera el cuerpo si no hay una entrada vigente.
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, String key,
+                      Supplier<String> versionETag, boolean cacheable, Supplier<Object> body) throws IOException {
+        String eTag = versionETag.get();
+        boolean gzip = acceptsGzip(request);
+        Entry entry = cacheable ? entries.get(key) : null;
+        ByteBuffer bytes;
+        if (entry != null && entry.eTag.equals(eTag)) {
+            hits.increment();
+            bytes = gzip ? entry.gzip : entry.identity;
+        } else {
+            misses.increment();
+            byte[] json = objectMapper.writeValueAsBytes(body.get());
+            //Si la versión avanzó mientras se generaba el cuerpo no se sabe a cuál corresponde: se sirve sin guardarse
+            if (cacheable && json.length <= maxEntryBytes && eTag.equals(versionETag.get())) {
+                entry = new Entry(eTag, offHeap(json), offHeap(compress(json)), System.nanoTime());
+                store(key, entry);
+                bytes = gzip ? entry.gzip : entry.identity;
+            } else {
+                bytes = ByteBuffer.wrap(gzip ? compress(json) : json);
+            }
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        //servesJson depende de Accept y la compresión de Accept-Encoding
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            gzipResponses.increment();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(bytes.remaining());
+
+        //duplicate(): cada petición lee con su propia posición sobre los mismos bytes
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel channel = Channels.newChannel(out);
+        ByteBuffer view = bytes.duplicate();
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+        out.flush();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("bytes", totalBytes.get());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("gzipResponses", gzipResponses.sum());
+        return stats;
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private void store(String key, Entry entry) {
+        long size = entry.size();
+        if (size > maxEntryBytes) {
+            return;
+        }
+
+        Entry previous = entries.put(key, entry);
+        totalBytes.addAndGet(size - (previous != null ? previous.size() : 0));
+
+        while (totalBytes.get() > maxBytes && evictOldest()) {
+            //Se expulsan entradas hasta volver al presupuesto
+        }
+    }
+
+    private boolean evictOldest() {
+        Map.Entry<String, Entry> oldest = null;
+        for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            if (oldest == null || candidate.getValue().storedAt < oldest.getValue().storedAt) {
+                oldest = candidate;
+            }
+        }
+        if (oldest == null) {
+            return false;
+        }
+        if (entries.remove(oldest.getKey(), oldest.getValue())) {
+            totalBytes.addAndGet(-oldest.getValue().size());
+            evictions.increment();
+        }
+        return true;
+    }
+
+    private static ByteBuffer offHeap(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    //"gzip;q=0" es un rechazo explícito; "*" acepta gzip salvo que gzip aparezca con su propio q
+    public static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 2 && param.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (name.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    private record Entry(String eTag, ByteBuffer identity, ByteBuffer gzip, long storedAt) {
+        private long size() {
+            return identity.capacity() + gzip.capacity();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.cache;
+
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostSummaryDTO;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de las primeras páginas del feed de cada sección.
+ * Las escrituras invalidan solo la sección afectada. Una entrada vencida se sigue sirviendo
+ * (stale-while-revalidate) mientras una única recarga corre en segundo plano, pero una entrada
+ * invalidada no: el feed se sirve con el ETag de la versión actual de la sección, y una página
+ * anterior a la escritura quedaría asociada a ese ETag hasta la siguiente escritura.
+ */
+@Component
+public class SectionFeedCache {
+
+    private final int maxPages;
+    private final int maxPageSize;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+
+    private final ConcurrentHashMap<FeedKey, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<FeedKey, Loading> loading = new ConcurrentHashMap<>();
+
+    //Cada escritura en una sección avanza su generación; las entradas de generaciones anteriores quedan obsoletas
+    private final Map<SectionEnum, AtomicLong> generations = new EnumMap<>(SectionEnum.class);
+
+    private final ExecutorService refresher;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SectionFeedCache(
+            @Value("${app.cache.feed_pages:3}") int maxPages,
+            @Value("${app.cache.feed_max_page_size:50}") int maxPageSize,
+            @Value("${app.cache.feed_max_entries:256}") int maxEntries,
+            @Value("${app.cache.feed_ttl_seconds:10}") long ttlSeconds,
+            @Value("${app.cache.feed_max_stale_seconds:60}") long maxStaleSeconds) {
+        this.maxPages = maxPages;
+        this.maxPageSize = maxPageSize;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxStaleNanos = TimeUnit.SECONDS.toNanos(maxStaleSeconds);
+
+        for (SectionEnum sectionType : SectionEnum.values()) {
+            generations.put(sectionType, new AtomicLong());
+        }
+
+        //Pocos hilos y cola acotada: si ya hay demasiadas recargas pendientes se descarta la nueva
+        this.refresher = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(64),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "section-feed-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public Page<PostSummaryDTO> get(SectionEnum sectionType, Pageable pageable, Supplier<Page<PostSummaryDTO>> loader) {
+        if (pageable.getPageNumber() >= maxPages || pageable.getPageSize() > maxPageSize) {
+            return loader.get();
+        }
+
+        FeedKey key = new FeedKey(sectionType, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+        Entry entry = entries.get(key);
+
+        if (entry != null) {
+            long age = System.nanoTime() - entry.loadedAt;
+            boolean current = entry.generation == generations.get(sectionType).get();
+
+            if (current && age <= ttlNanos) {
+                hits.increment();
+                return entry.page;
+            }
+
+            //Vencida pero de la generación actual: los datos siguen siendo los de la versión que ve el cliente
+            if (current && age <= maxStaleNanos) {
+                staleHits.increment();
+                refreshInBackground(key, loader);
+                return entry.page;
+            }
+        }
+
+        misses.increment();
+        return load(key, loader);
+    }
+
+    public void invalidate(SectionEnum sectionType) {
+        generations.get(sectionType).incrementAndGet();
+        invalidations.increment();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("hits", hits.sum());
+        stats.put("staleHits", staleHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("refreshes", refreshes.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private void refreshInBackground(FeedKey key, Supplier<Page<PostSummaryDTO>> loader) {
+        Loading inFlight = loading.get(key);
+        if (inFlight != null && inFlight.generation() == generations.get(key.sectionType()).get()) {
+            return;
+        }
+
+        refresher.execute(() -> {
+            try {
+                refreshes.increment();
+                load(key, loader);
+            } catch (RuntimeException e) {
+                //Si la recarga falla se sigue sirviendo la entrada anterior hasta max_stale o la siguiente escritura
+            }
+        });
+    }
+
+    //Una sola carga por clave y generación; las peticiones concurrentes esperan el mismo resultado
+    private Page<PostSummaryDTO> load(FeedKey key, Supplier<Page<PostSummaryDTO>> loader) {
+        //La generación se lee antes de consultar: si llega una escritura durante la carga, la entrada nace obsoleta
+        long generation = generations.get(key.sectionType()).get();
+        Loading mine = new Loading(generation, new CompletableFuture<>());
+        //Una carga empezada antes de la última escritura puede devolver datos viejos: no se espera, se reemplaza
+        Loading inFlight = loading.compute(key,
+                (ignored, current) -> current != null && current.generation() >= generation ? current : mine);
+        if (inFlight != mine) {
+            try {
+                return inFlight.future().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            Page<PostSummaryDTO> page = loader.get();
+            store(key, new Entry(page, generation, System.nanoTime()));
+            mine.future().complete(page);
+            return page;
+        } catch (RuntimeException e) {
+            mine.future().completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    private void store(FeedKey key, Entry entry) {
+        if (!entries.containsKey(key) && entries.size() >= maxEntries) {
+            evictOldest();
+        }
+        //Una carga reemplazada que termina tarde no pisa la entrada de una generación posterior
+        entries.merge(key, entry, (previous, fresh) -> fresh.generation >= previous.generation ? fresh : previous);
+    }
+
+    private void evictOldest() {
+        FeedKey oldest = null;
+        long oldestLoadedAt = Long.MAX_VALUE;
+        for (Map.Entry<FeedKey, Entry> candidate : entries.entrySet()) {
+            if (candidate.getValue().loadedAt < oldestLoadedAt) {
+                oldestLoadedAt = candidate.getValue().loadedAt;
+                oldest = candidate.getKey();
+            }
+        }
+        if (oldest != null && entries.remove(oldest) != null) {
+            evictions.increment();
+        }
+    }
+
+    private record FeedKey(SectionEnum sectionType, int page, int size, String sort) {
+    }
+
+    private record Entry(Page<PostSummaryDTO> page, long generation, long loadedAt) {
+    }
+
+    private record Loading(long generation, CompletableFuture<Page<PostSummaryDTO>> future) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.catalog;
+
+import com.alexander.spring.r_chan.r_chan.dtos.publications.CatalogDTO;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+
+import java.util.UUID;
+
+public interface CatalogService {
+    CatalogDTO getCatalog(SectionEnum sectionType);
+    void markChanged(SectionEnum sectionType, UUID postId);
+}
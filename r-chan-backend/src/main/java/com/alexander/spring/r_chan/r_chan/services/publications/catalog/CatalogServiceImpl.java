@@ -0,0 +1,150 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.catalog;
+
+import com.alexander.spring.r_chan.r_chan.dtos.publications.CatalogDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostSummaryDTO;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.services.publications.PostService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo por sección: todos los hilos vivos como resúmenes en un solo payload.
+ * Se carga entero una vez y después solo se recargan los hilos que cambiaron,
+ * con un único IN en la siguiente lectura. Los avisos llegan desde PublicationChangeService.
+ */
+@Service
+public class CatalogServiceImpl implements CatalogService {
+
+    private static final Comparator<PostSummaryDTO> BY_BUMP =
+            Comparator.comparing(PostSummaryDTO::getLastBumpedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(PostSummaryDTO::getId, Comparator.reverseOrder());
+
+    //Lazy: PostService avisa de sus cambios a PublicationChangeService, que a su vez marca este catálogo
+    @Autowired
+    @Lazy
+    private PostService postService;
+
+    @Value("${app.catalog.max_threads:500}")
+    private int maxThreads;
+
+    private final Map<SectionEnum, SectionCatalog> catalogs = new EnumMap<>(SectionEnum.class);
+
+    public CatalogServiceImpl() {
+        for (SectionEnum sectionType : SectionEnum.values()) {
+            catalogs.put(sectionType, new SectionCatalog(sectionType));
+        }
+    }
+
+    @Override
+    public CatalogDTO getCatalog(SectionEnum sectionType) {
+        return new CatalogDTO(sectionType, catalogs.get(sectionType).snapshot());
+    }
+
+    //Solo anota el id; la consulta se hace en la siguiente lectura y agrupa todos los cambios pendientes
+    @Override
+    public void markChanged(SectionEnum sectionType, UUID postId) {
+        catalogs.get(sectionType).dirty.add(postId);
+    }
+
+    private final class SectionCatalog {
+
+        private final SectionEnum sectionType;
+        private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+        private Map<UUID, PostSummaryDTO> threads;
+        //true si la carga inicial llegó al tope: al perder hilos hay que volver a leer la cola
+        private boolean truncated;
+        private volatile List<PostSummaryDTO> published;
+
+        private SectionCatalog(SectionEnum sectionType) {
+            this.sectionType = sectionType;
+        }
+
+        private List<PostSummaryDTO> snapshot() {
+            List<PostSummaryDTO> current = published;
+            if (current != null && dirty.isEmpty()) {
+                return current;
+            }
+            return rebuild();
+        }
+
+        private synchronized List<PostSummaryDTO> rebuild() {
+            if (threads == null) {
+                //Lo anotado antes de la carga completa ya está incluido en ella
+                dirty.clear();
+                reloadAll();
+            } else if (!dirty.isEmpty()) {
+                applyChanges();
+            } else {
+                return published;
+            }
+
+            List<PostSummaryDTO> sorted = new ArrayList<>(threads.values());
+            sorted.sort(BY_BUMP);
+            published = List.copyOf(sorted);
+            return published;
+        }
+
+        //Se asigna solo si la consulta termina: si falla, el catálogo anterior (o ninguno) sigue como estaba
+        private void reloadAll() {
+            List<PostSummaryDTO> loaded = postService.findCatalog(sectionType, maxThreads);
+            Map<UUID, PostSummaryDTO> reloaded = new HashMap<>();
+            loaded.forEach(post -> reloaded.put(post.getId(), post));
+            threads = reloaded;
+            truncated = loaded.size() >= maxThreads;
+        }
+
+        private void applyChanges() {
+            List<UUID> changed = new ArrayList<>(dirty);
+            dirty.removeAll(changed);
+
+            List<PostSummaryDTO> loaded;
+            try {
+                loaded = postService.findSummariesByIds(changed);
+            } catch (RuntimeException e) {
+                //Los cambios vuelven a quedar pendientes para la siguiente lectura
+                dirty.addAll(changed);
+                throw e;
+            }
+
+            Map<UUID, PostSummaryDTO> fresh = new HashMap<>();
+            for (PostSummaryDTO post : loaded) {
+                fresh.put(post.getId(), post);
+            }
+
+            for (UUID id : changed) {
+                PostSummaryDTO post = fresh.get(id);
+                //Borrado, rechazado o movido a otra sección: sale de este catálogo
+                if (post == null || post.getSectionType() != sectionType) {
+                    threads.remove(id);
+                    if (post != null) {
+                        markChanged(post.getSectionType(), id);
+                    }
+                } else {
+                    threads.put(id, post);
+                }
+            }
+
+            if (threads.size() > maxThreads) {
+                trimToLimit();
+            } else if (truncated && threads.size() < maxThreads) {
+                //Salieron hilos y había más fuera del tope: se rellena con una carga completa
+                reloadAll();
+            }
+        }
+
+        private void trimToLimit() {
+            List<PostSummaryDTO> sorted = new ArrayList<>(threads.values());
+            sorted.sort(BY_BUMP);
+            for (PostSummaryDTO post : sorted.subList(maxThreads, sorted.size())) {
+                threads.remove(post.getId());
+            }
+            truncated = true;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.changes;
+
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface PublicationChangeService {
+    void postChanged(SectionEnum sectionType, UUID postId);
+    void threadDeleted(SectionEnum sectionType, UUID postId);
+    void replyChanged(SectionEnum sectionType, UUID postId, UUID rePostId);
+    void backlinksChanged(Collection<UUID> threadIds);
+}
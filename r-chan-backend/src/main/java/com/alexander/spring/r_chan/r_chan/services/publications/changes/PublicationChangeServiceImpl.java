@@ -0,0 +1,102 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.changes;
+
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.services.publications.cache.SectionFeedCache;
+import com.alexander.spring.r_chan.r_chan.services.publications.catalog.CatalogService;
+import com.alexander.spring.r_chan.r_chan.services.publications.live.LiveUpdateHub;
+import com.alexander.spring.r_chan.r_chan.services.publications.search.SearchService;
+import com.alexander.spring.r_chan.r_chan.services.publications.versioning.ContentVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Punto único por el que las escrituras de posts y respuestas avisan de un cambio visible
+ * en el feed público (incluidas las aprobaciones de moderación, que pasan por updatePost/updateRePost).
+ * Los avisos se aplican después del commit.
+ */
+@Service
+public class PublicationChangeServiceImpl implements PublicationChangeService {
+
+    @Autowired
+    private SectionFeedCache sectionFeedCache;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private LiveUpdateHub liveUpdateHub;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Override
+    public void postChanged(SectionEnum sectionType, UUID postId) {
+        afterCommit(() -> applyPostChange(sectionType, postId, false));
+    }
+
+    //Como postChanged, pero la versión del hilo sale de memoria en lugar de avanzar
+    @Override
+    public void threadDeleted(SectionEnum sectionType, UUID postId) {
+        afterCommit(() -> applyPostChange(sectionType, postId, true));
+    }
+
+    private void applyPostChange(SectionEnum sectionType, UUID postId, boolean deleted) {
+        //Catálogo y feed se invalidan antes de avanzar la versión: quien vea el ETag nuevo verá los datos recargados
+        catalogService.markChanged(sectionType, postId);
+        searchService.postChanged(postId);
+        sectionFeedCache.invalidate(sectionType);
+        contentVersionService.bumpSection(sectionType);
+        if (deleted) {
+            contentVersionService.removeThread(postId);
+        } else {
+            contentVersionService.bumpThread(postId);
+        }
+        liveUpdateHub.publishPost(sectionType, postId, contentVersionService.sectionVersion(sectionType),
+                contentVersionService.threadVersion(postId), deleted);
+    }
+
+    @Override
+    public void replyChanged(SectionEnum sectionType, UUID postId, UUID rePostId) {
+        //El contador de respuestas del hilo se muestra en el feed de su sección
+        afterCommit(() -> {
+            catalogService.markChanged(sectionType, postId);
+            searchService.replyChanged(rePostId);
+            sectionFeedCache.invalidate(sectionType);
+            contentVersionService.bumpThread(postId);
+            contentVersionService.bumpSection(sectionType);
+            liveUpdateHub.publishReply(sectionType, postId, rePostId,
+                    contentVersionService.sectionVersion(sectionType), contentVersionService.threadVersion(postId));
+        });
+    }
+
+    //Una cita nueva o borrada cambia los backlinks (y el ETag) de los hilos citados
+    @Override
+    public void backlinksChanged(Collection<UUID> threadIds) {
+        List<UUID> threads = List.copyOf(threadIds);
+        afterCommit(() -> threads.forEach(contentVersionService::bumpThread));
+    }
+
+    //Si se aplicara antes del commit, una recarga podría volver a leer los datos viejos
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
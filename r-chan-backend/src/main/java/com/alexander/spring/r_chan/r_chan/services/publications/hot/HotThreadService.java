@@ -0,0 +1,11 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.hot;
+
+import com.alexander.spring.r_chan.r_chan.dtos.publications.HotThreadDTO;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+
+import java.util.List;
+
+public interface HotThreadService {
+    List<HotThreadDTO> findHot(SectionEnum sectionType, int size);
+    void refresh();
+}
@@ -0,0 +1,173 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.hot;
+
+import com.alexander.spring.r_chan.r_chan.dtos.publications.HotThreadDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostSummaryDTO;
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.repository.RePostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.projection.RecentReply;
+import com.alexander.spring.r_chan.r_chan.services.publications.PostService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranking de hilos "hot" por sección: respuestas visibles con decaimiento exponencial.
+ * Un job programado lee solo las respuestas creadas o aprobadas desde la última marca (updatedDate, id),
+ * envejece los puntajes acumulados y publica el top-K de cada sección como una instantánea en memoria.
+ * La marca retrocede un margen en cada pasada (updatedDate se fija antes del commit) y las respuestas
+ * ya puntuadas se recuerdan mientras pesan, así que una respuesta tardía no se pierde ni cuenta dos veces.
+ */
+@Service
+public class HotThreadServiceImpl implements HotThreadService {
+
+    private static final List<ApprovalStatus> APPROVED_STATUSES =
+            List.of(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED);
+
+    private static final int BATCH_SIZE = 1000;
+
+    //Al arrancar solo se leen las respuestas que todavía pesan (8 vidas medias ≈ 0.4%)
+    private static final int WARMUP_HALF_LIVES = 8;
+
+    //Por debajo de este puntaje el hilo deja de seguirse
+    private static final double MIN_SCORE = 0.01;
+
+    @Autowired
+    private RePostRepository rePostRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Value("${app.hot.half_life_minutes:120}")
+    private long halfLifeMinutes;
+
+    @Value("${app.hot.top_k:50}")
+    private int topK;
+
+    //Tope de lotes por pasada para que un pico de respuestas no alargue el job
+    @Value("${app.hot.max_batches:20}")
+    private int maxBatches;
+
+    //Mismo margen que el polling de hilos
+    @Value("${app.thread.since_overlap_ms:2000}")
+    private long overlapMs;
+
+    //Estado del job: solo lo usa refresh()
+    private final Map<UUID, ThreadScore> scores = new HashMap<>();
+    //Respuestas ya puntuadas (id -> createdDate); se olvidan cuando su peso ya no cuenta
+    private final Map<UUID, LocalDateTime> counted = new HashMap<>();
+    private LocalDateTime watermarkDate;
+    private UUID watermarkId;
+    private LocalDateTime lastDecayAt;
+
+    //Ranking publicado; se reemplaza entero en cada pasada y las lecturas no bloquean
+    private volatile Map<SectionEnum, List<HotThreadDTO>> ranking = Map.of();
+
+    @Override
+    public List<HotThreadDTO> findHot(SectionEnum sectionType, int size) {
+        List<HotThreadDTO> top = ranking.getOrDefault(sectionType, List.of());
+        return top.subList(0, Math.max(0, Math.min(size, top.size())));
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${app.hot.initial_delay_ms:10000}", fixedDelayString = "${app.hot.refresh_ms:30000}")
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        if (watermarkDate == null) {
+            watermarkDate = now.minusMinutes(halfLifeMinutes * WARMUP_HALF_LIVES);
+            watermarkId = new UUID(0L, 0L);
+            lastDecayAt = now;
+        }
+
+        LocalDateTime horizon = now.minusMinutes(halfLifeMinutes * WARMUP_HALF_LIVES);
+        decay(now);
+        readNewReplies(now, horizon);
+        scores.values().removeIf(score -> score.value < MIN_SCORE);
+        counted.values().removeIf(createdDate -> createdDate.isBefore(horizon));
+        publish();
+    }
+
+    private void decay(LocalDateTime now) {
+        double factor = weight(Duration.between(lastDecayAt, now));
+        for (ThreadScore score : scores.values()) {
+            score.value *= factor;
+        }
+        lastDecayAt = now;
+    }
+
+    private void readNewReplies(LocalDateTime now, LocalDateTime horizon) {
+        Pageable batch = PageRequest.of(0, BATCH_SIZE);
+        for (int i = 0; i < maxBatches; i++) {
+            List<RecentReply> replies = rePostRepository.findRecentApprovedUpdatedAfter(
+                    APPROVED_STATUSES, watermarkDate, watermarkId, batch);
+
+            for (RecentReply reply : replies) {
+                //Ya puntuada (margen repetido o edición), o tan vieja que no pesaría
+                if (reply.getCreatedDate().isBefore(horizon)
+                        || counted.putIfAbsent(reply.getId(), reply.getCreatedDate()) != null) {
+                    continue;
+                }
+                ThreadScore score = scores.computeIfAbsent(reply.getPostId(), id -> new ThreadScore());
+                //El hilo puede haber cambiado de sección; manda la respuesta más reciente
+                score.sectionType = reply.getSectionType();
+                score.value += weight(Duration.between(reply.getCreatedDate(), now));
+            }
+
+            if (replies.size() < BATCH_SIZE) {
+                //Al terminar se retrocede el margen: las escrituras lentas que quedaron atrás se leen en la próxima pasada
+                if (!replies.isEmpty()) {
+                    watermarkDate = replies.get(replies.size() - 1).getUpdatedDate().minus(Duration.ofMillis(overlapMs));
+                    watermarkId = new UUID(0L, 0L);
+                }
+                return;
+            }
+            //Lote lleno: se sigue exactamente desde la última fila
+            RecentReply last = replies.get(replies.size() - 1);
+            watermarkDate = last.getUpdatedDate();
+            watermarkId = last.getId();
+        }
+    }
+
+    private void publish() {
+        Map<SectionEnum, List<UUID>> topIds = scores.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<UUID, ThreadScore> entry) -> entry.getValue().value).reversed())
+                .collect(Collectors.groupingBy(entry -> entry.getValue().sectionType,
+                        () -> new EnumMap<>(SectionEnum.class),
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        topIds.replaceAll((sectionType, ids) -> ids.subList(0, Math.min(topK, ids.size())));
+
+        //Un solo IN para todas las secciones; los posts borrados u ocultos no vuelven y salen del ranking
+        List<UUID> allIds = topIds.values().stream().flatMap(List::stream).toList();
+        Map<UUID, PostSummaryDTO> posts = postService.findSummariesByIds(allIds).stream()
+                .collect(Collectors.toMap(PostSummaryDTO::getId, Function.identity()));
+
+        Map<SectionEnum, List<HotThreadDTO>> next = new EnumMap<>(SectionEnum.class);
+        topIds.forEach((sectionType, ids) -> next.put(sectionType, ids.stream()
+                .filter(posts::containsKey)
+                .map(id -> new HotThreadDTO(posts.get(id), scores.get(id).value))
+                .toList()));
+
+        allIds.stream().filter(id -> !posts.containsKey(id)).forEach(scores::remove);
+        ranking = Collections.unmodifiableMap(next);
+    }
+
+    //Peso de una respuesta según su antigüedad: 1 al llegar, 1/2 tras una vida media
+    private double weight(Duration age) {
+        double halfLives = Math.max(0, age.toMillis()) / (halfLifeMinutes * 60_000.0);
+        return Math.pow(0.5, halfLives);
+    }
+
+    private static class ThreadScore {
+        private SectionEnum sectionType;
+        private double value;
+    }
+}
@@ -0,0 +1,330 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.live;
+
+import com.alexander.spring.r_chan.r_chan.dtos.live.LiveEventDTO;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Reparte por SSE los cambios de cada sección y de cada hilo.
+ * Cada suscriptor tiene una cola acotada; si se llena, el cliente es demasiado lento y se le cierra
+ * la conexión (EventSource reconecta y vuelve a sincronizar con la versión actual).
+ * Un envío que no termina en app.live.send_timeout_ms (socket lleno) también cierra al suscriptor
+ * e interrumpe el envío, para que un cliente que no lee no retenga uno de los pocos hilos de envío.
+ * Las conexiones inactivas no ocupan hilos: solo se usan hilos al enviar.
+ */
+@Component
+public class LiveUpdateHub {
+
+    public static final String POST_EVENT = "post";
+    public static final String REPLY_EVENT = "reply";
+    public static final String DELETED_EVENT = "deleted";
+    public static final String READY_EVENT = "ready";
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+
+    private final Map<SectionEnum, Set<Subscriber>> sectionSubscribers = new EnumMap<>(SectionEnum.class);
+    private final ConcurrentHashMap<UUID, Set<Subscriber>> threadSubscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ExecutorService senders;
+    private final ObjectMapper objectMapper;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder stalled = new LongAdder();
+
+    public LiveUpdateHub(
+            @Value("${app.live.buffer_size:32}") int bufferSize,
+            @Value("${app.live.max_subscribers:20000}") int maxSubscribers,
+            @Value("${app.live.timeout_ms:1800000}") long timeoutMillis,
+            @Value("${app.live.sender_threads:4}") int senderThreads,
+            @Value("${app.live.send_timeout_ms:10000}") long sendTimeoutMillis,
+            ObjectProvider<ObjectMapper> objectMapperProvider) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.objectMapper = objectMapperProvider.getIfAvailable(ObjectMapper::new);
+
+        for (SectionEnum sectionType : SectionEnum.values()) {
+            sectionSubscribers.put(sectionType, ConcurrentHashMap.newKeySet());
+        }
+
+        //Como mucho una tarea pendiente por suscriptor, así que la cola queda acotada por max_subscribers
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-update-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sectionSubscribers.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        threadSubscribers.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        senders.shutdownNow();
+    }
+
+    /**
+     * Abre una suscripción a los cambios de una sección.
+     * @return El emisor, o null si el nodo ya tiene el máximo de conexiones.
+     */
+    public SseEmitter subscribeSection(SectionEnum sectionType, long currentVersion) {
+        return subscribe(sectionType, null, currentVersion,
+                subscriber -> sectionSubscribers.get(sectionType).add(subscriber));
+    }
+
+    public SseEmitter subscribeThread(UUID postId, long currentVersion) {
+        //compute() para no agregar a un conjunto que otro hilo acaba de sacar del mapa por quedar vacío
+        return subscribe(null, postId, currentVersion, subscriber -> threadSubscribers.compute(postId, (id, subscribers) -> {
+            Set<Subscriber> topic = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            topic.add(subscriber);
+            return topic;
+        }));
+    }
+
+    /**
+     * Cambio del post que abre un hilo: llega a la sección y a quienes siguen el hilo.
+     * @param deleted true si el hilo se borró o se podó: sus suscriptores reciben el evento y se cierran.
+     */
+    public void publishPost(SectionEnum sectionType, UUID postId, long sectionVersion, long threadVersion, boolean deleted) {
+        Set<Subscriber> subscribers = threadSubscribers.get(postId);
+        if (subscribers != null) {
+            LiveEventDTO event = new LiveEventDTO(sectionType, postId, null, threadVersion);
+            fanOut(subscribers, deleted ? lastMessage(DELETED_EVENT, event) : message(POST_EVENT, event));
+        }
+        fanOut(sectionSubscribers.get(sectionType), message(POST_EVENT, new LiveEventDTO(sectionType, postId, null, sectionVersion)));
+    }
+
+    public void publishReply(SectionEnum sectionType, UUID postId, UUID rePostId, long sectionVersion, long threadVersion) {
+        Set<Subscriber> subscribers = threadSubscribers.get(postId);
+        if (subscribers != null) {
+            fanOut(subscribers, message(REPLY_EVENT, new LiveEventDTO(sectionType, postId, rePostId, threadVersion)));
+        }
+        //En la sección solo cambia el contador de respuestas del hilo
+        fanOut(sectionSubscribers.get(sectionType), message(REPLY_EVENT, new LiveEventDTO(sectionType, postId, rePostId, sectionVersion)));
+    }
+
+    //Mantiene vivas las conexiones detrás de proxies y detecta clientes que ya se fueron
+    @Scheduled(fixedDelayString = "${app.live.heartbeat_ms:25000}")
+    public void heartbeat() {
+        Message heartbeat = new Message(null, null);
+        sectionSubscribers.values().forEach(subscribers -> fanOut(subscribers, heartbeat));
+        threadSubscribers.values().forEach(subscribers -> fanOut(subscribers, heartbeat));
+    }
+
+    //Cierra a los suscriptores con un envío bloqueado más de send_timeout_ms
+    @Scheduled(fixedDelayString = "${app.live.send_timeout_ms:10000}")
+    public void expireStalledSends() {
+        long now = System.nanoTime();
+        sectionSubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.expireSend(now)));
+        threadSubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.expireSend(now)));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscriberCount.get());
+        stats.put("threads", threadSubscribers.size());
+        stats.put("published", published.sum());
+        stats.put("delivered", delivered.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("stalled", stalled.sum());
+        return stats;
+    }
+
+    private SseEmitter subscribe(SectionEnum sectionType, UUID postId, long currentVersion, Consumer<Subscriber> register) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            rejected.increment();
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, sectionType, postId);
+        register.accept(subscriber);
+
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        //Primer evento con la versión actual para que el cliente sepa desde dónde sincronizar
+        subscriber.offer(new Message(READY_EVENT, "{\"version\":" + currentVersion + "}"));
+        return emitter;
+    }
+
+    private Message message(String name, LiveEventDTO event) {
+        published.increment();
+        //Se serializa una sola vez por evento, no una vez por suscriptor
+        return new Message(name, objectMapper.writeValueAsString(event));
+    }
+
+    //Después de enviarlo se cierra la conexión: no queda nada que seguir
+    private Message lastMessage(String name, LiveEventDTO event) {
+        published.increment();
+        return new Message(name, objectMapper.writeValueAsString(event), true);
+    }
+
+    private void fanOut(Set<Subscriber> subscribers, Message message) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    private record Message(String name, String data, boolean last) {
+        private Message(String name, String data) {
+            this(name, data, false);
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        //Uno de los dos: la sección o el hilo al que está suscrito
+        private final SectionEnum sectionType;
+        private final UUID postId;
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        //Envío en curso: hilo que lo hace y cuándo empezó (protegidos por el monitor del suscriptor)
+        private Thread sendingThread;
+        private long sendStartedNanos;
+        private volatile boolean expired;
+
+        private Subscriber(SseEmitter emitter, SectionEnum sectionType, UUID postId) {
+            this.emitter = emitter;
+            this.sectionType = sectionType;
+            this.postId = postId;
+        }
+
+        private void offer(Message message) {
+            if (removed.get()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                //Cola llena: el cliente no lee al ritmo de los eventos
+                dropped.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Message message;
+                while ((message = queue.poll()) != null) {
+                    beginSend();
+                    try {
+                        if (message.name() == null) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        } else {
+                            emitter.send(SseEmitter.event().name(message.name()).data(message.data()));
+                            delivered.increment();
+                        }
+                    } finally {
+                        endSend();
+                    }
+                    if (message.last()) {
+                        close();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                //El cliente cerró la conexión
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (expired) {
+                emitter.complete();
+                return;
+            }
+            //Un mensaje pudo llegar entre el último poll y soltar la marca
+            if (!queue.isEmpty() && !removed.get()) {
+                scheduleDrain();
+            }
+        }
+
+        private synchronized void beginSend() {
+            sendingThread = Thread.currentThread();
+            sendStartedNanos = System.nanoTime();
+        }
+
+        private synchronized void endSend() {
+            sendingThread = null;
+            //La interrupción de expireSend pudo llegar justo al terminar: no debe pasar a la siguiente tarea del pool
+            Thread.interrupted();
+        }
+
+        private void expireSend(long now) {
+            synchronized (this) {
+                if (sendingThread == null || now - sendStartedNanos < sendTimeoutNanos) {
+                    return;
+                }
+                expired = true;
+                sendingThread.interrupt();
+            }
+            //complete() espera a que termine el envío bloqueado: lo llama el propio hilo de envío al soltarse
+            if (remove()) {
+                stalled.increment();
+            }
+        }
+
+        private void close() {
+            if (remove()) {
+                emitter.complete();
+            }
+        }
+
+        private boolean remove() {
+            if (!removed.compareAndSet(false, true)) {
+                return false;
+            }
+            if (postId != null) {
+                //Los hilos sin suscriptores no se quedan en el mapa
+                threadSubscribers.computeIfPresent(postId, (id, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            } else {
+                sectionSubscribers.get(sectionType).remove(this);
+            }
+            subscriberCount.decrementAndGet();
+            queue.clear();
+            return true;
+        }
+    }
+}
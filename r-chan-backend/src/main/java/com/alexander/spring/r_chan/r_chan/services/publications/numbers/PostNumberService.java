@@ -0,0 +1,5 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.numbers;
+
+public interface PostNumberService {
+    long next();
+}
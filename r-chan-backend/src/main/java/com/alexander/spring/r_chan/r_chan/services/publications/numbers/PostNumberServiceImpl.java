@@ -0,0 +1,163 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.numbers;
+
+import com.alexander.spring.r_chan.r_chan.entity.NumberSequence;
+import com.alexander.spring.r_chan.r_chan.repository.NumberSequenceRepository;
+import com.alexander.spring.r_chan.r_chan.repository.PostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.RePostRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Números de post legibles (para citar con >>1234), compartidos por posts y respuestas.
+ * Cada instancia reserva un bloque de números en number_sequence y los entrega desde memoria,
+ * así que las escrituras concurrentes solo tocan esa fila una vez por bloque.
+ * El bloque siguiente se reserva en segundo plano cuando el actual va por la mitad: next() se llama
+ * dentro de la transacción del post, y pedir otra conexión y el bloqueo de la fila con el monitor
+ * tomado dejaba a los demás hilos esperando con su conexión abierta hasta agotar el pool.
+ */
+@Service
+public class PostNumberServiceImpl implements PostNumberService {
+
+    private static final String SEQUENCE = "post_number";
+
+    @Autowired
+    private NumberSequenceRepository numberSequenceRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private RePostRepository rePostRepository;
+
+    @Value("${app.post.number_block_size:100}")
+    private int blockSize;
+
+    private final TransactionTemplate blockTransaction;
+
+    //Un solo hilo reserva bloques; nadie toca la base de datos con el monitor tomado
+    private final ExecutorService reserver;
+
+    //Rango reservado por esta instancia: [next, limit)
+    private long next;
+    private long limit;
+
+    //Reserva del bloque siguiente en curso (o ya terminada y sin instalar)
+    private CompletableFuture<Long> nextBlock;
+
+    public PostNumberServiceImpl(PlatformTransactionManager transactionManager) {
+        //Transacción propia: el bloque queda reservado aunque la escritura que lo pidió haga rollback
+        this.blockTransaction = new TransactionTemplate(transactionManager);
+        this.blockTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.reserver = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "post-number-reserver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reserver.shutdownNow();
+    }
+
+    @Override
+    public long next() {
+        while (true) {
+            CompletableFuture<Long> pending;
+            synchronized (this) {
+                if (next < limit) {
+                    long number = next++;
+                    if (limit - next <= blockSize / 2) {
+                        requestNextBlock();
+                    }
+                    return number;
+                }
+                pending = requestNextBlock();
+            }
+
+            //Bloque agotado antes de que llegara el siguiente: se espera fuera del monitor
+            long start;
+            try {
+                start = pending.join();
+            } catch (CompletionException e) {
+                synchronized (this) {
+                    if (nextBlock == pending) {
+                        nextBlock = null;
+                    }
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+
+            synchronized (this) {
+                //Solo el primer hilo que llega instala el bloque; los demás vuelven a intentarlo con él
+                if (nextBlock == pending) {
+                    nextBlock = null;
+                    next = start;
+                    limit = start + blockSize;
+                }
+            }
+        }
+    }
+
+    //Llamar con el monitor tomado
+    private CompletableFuture<Long> requestNextBlock() {
+        if (nextBlock == null) {
+            nextBlock = CompletableFuture.supplyAsync(() -> reserveBlock(blockSize), reserver);
+        }
+        return nextBlock;
+    }
+
+    private long reserveBlock(long size) {
+        try {
+            return blockTransaction.execute(status -> reserveBlockLocked(size));
+        } catch (DataIntegrityViolationException e) {
+            //Otra instancia creó la fila al mismo tiempo; ahora ya existe y se puede bloquear
+            return blockTransaction.execute(status -> reserveBlockLocked(size));
+        }
+    }
+
+    private long reserveBlockLocked(long size) {
+        NumberSequence sequence = numberSequenceRepository.lockByName(SEQUENCE)
+                .orElseGet(() -> numberSequenceRepository.saveAndFlush(new NumberSequence(SEQUENCE, initialValue())));
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + size);
+        numberSequenceRepository.save(sequence);
+        return start;
+    }
+
+    //Al crear la secuencia se continúa desde el mayor número ya asignado
+    private long initialValue() {
+        long maxPost = postRepository.findMaxNumber().orElse(0L);
+        long maxRePost = rePostRepository.findMaxNumber().orElse(0L);
+        return Math.max(maxPost, maxRePost) + 1;
+    }
+
+    //Los posts y respuestas anteriores a la columna reciben número al arrancar, en orden de creación.
+    //Con todo numerado cuesta dos COUNT; si falta algo se reserva un rango exacto y se asigna en un UPDATE por tabla
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingNumbers() {
+        long missingPosts = postRepository.countByNumberIsNull();
+        if (missingPosts > 0) {
+            postRepository.assignMissingNumbers(reserveBlock(missingPosts));
+        }
+
+        long missingRePosts = rePostRepository.countByNumberIsNull();
+        if (missingRePosts > 0) {
+            rePostRepository.assignMissingNumbers(reserveBlock(missingRePosts));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.posters;
+
+import com.alexander.spring.r_chan.r_chan.entity.Post;
+
+public interface PosterCountService {
+    Long posterHash(Post post, String clientAddress);
+    void addPoster(Post post, Long posterHash);
+}
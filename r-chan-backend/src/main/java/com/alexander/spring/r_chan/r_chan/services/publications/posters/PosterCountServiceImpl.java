@@ -0,0 +1,71 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.posters;
+
+import com.alexander.spring.r_chan.r_chan.entity.Post;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * Posters únicos aproximados por hilo sin guardar direcciones: cada dirección se reduce a un
+ * HMAC con sal secreta y el id del hilo (la misma dirección da hashes distintos en hilos distintos),
+ * y solo ese hash alimenta el sketch del post. El hash se guarda en la respuesta y entra al sketch
+ * cuando la respuesta es visible, al llegar o al aprobarse: las pendientes y rechazadas no cuentan.
+ */
+@Service
+public class PosterCountServiceImpl implements PosterCountService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public PosterCountServiceImpl(@Value("${app.posters.hash_salt:}") String salt) {
+        byte[] secret;
+        if (salt == null || salt.isBlank()) {
+            //Sin sal configurada cada reinicio usa otra: una misma dirección puede contarse dos veces
+            System.err.println("app.posters.hash_salt is not set, using a random salt until restart");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = salt.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    //null si no se conoce la dirección: la respuesta no contará como poster
+    @Override
+    public Long posterHash(Post post, String clientAddress) {
+        if (clientAddress == null || clientAddress.isBlank()) {
+            return null;
+        }
+        return hash(post, clientAddress);
+    }
+
+    @Override
+    public void addPoster(Post post, Long posterHash) {
+        if (posterHash == null) {
+            return;
+        }
+
+        byte[] sketch = PosterSketch.add(post.getPosterSketch(), posterHash);
+        post.setPosterSketch(sketch);
+        post.setUniquePosters(PosterSketch.estimate(sketch));
+    }
+
+    private long hash(Post post, String clientAddress) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(post.getId().toString().getBytes(StandardCharsets.UTF_8));
+            byte[] digest = mac.doFinal(clientAddress.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available: " + ALGORITHM, e);
+        }
+    }
+}
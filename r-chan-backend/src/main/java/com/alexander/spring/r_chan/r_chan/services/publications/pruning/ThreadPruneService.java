@@ -0,0 +1,8 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.pruning;
+
+import com.alexander.spring.r_chan.r_chan.entity.Section;
+
+public interface ThreadPruneService {
+    void pruneAll();
+    int prune(Section section);
+}
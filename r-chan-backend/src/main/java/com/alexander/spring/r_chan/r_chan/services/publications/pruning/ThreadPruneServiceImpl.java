@@ -0,0 +1,237 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.pruning;
+
+import com.alexander.spring.r_chan.r_chan.entity.Section;
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.repository.PostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.RePostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.SectionRepository;
+import com.alexander.spring.r_chan.r_chan.repository.projection.ThreadState;
+import com.alexander.spring.r_chan.r_chan.services.publications.archive.ThreadArchiveService;
+import com.alexander.spring.r_chan.r_chan.services.publications.changes.PublicationChangeService;
+import com.alexander.spring.r_chan.r_chan.services.publications.references.PostReferenceService;
+import com.alexander.spring.r_chan.r_chan.services.storage.FileStorageServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Mantiene cada sección por debajo de su máximo de hilos visibles borrando los menos
+ * recientemente bumpeados, por lotes y en una transacción por lote.
+ * Cada hilo se archiva antes de borrarlo (app.archive.enabled); si no se pudo archivar, no se borra.
+ * El archivo se escribe fuera de la transacción, así que el borrado bloquea los posts y descarta
+ * los hilos que cambiaron desde que se archivaron: se vuelven a archivar en la próxima pasada.
+ * La copia solo se publica si el borrado hizo commit; si no, se descarta.
+ * Los archivos se liberan después del commit: si el borrado hace rollback, los archivos siguen ahí.
+ */
+@Service
+public class ThreadPruneServiceImpl implements ThreadPruneService {
+
+    private static final List<ApprovalStatus> PUBLIC_STATUSES =
+            List.of(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private RePostRepository rePostRepository;
+
+    @Autowired
+    private SectionRepository sectionRepository;
+
+    @Autowired
+    private PostReferenceService postReferenceService;
+
+    @Autowired
+    private PublicationChangeService publicationChangeService;
+
+    @Autowired
+    private FileStorageServiceImpl fileStorageServiceImpl;
+
+    @Autowired
+    private ThreadArchiveService threadArchiveService;
+
+    @Value("${app.thread.max_threads:200}")
+    private int defaultMaxThreads;
+
+    @Value("${app.prune.batch_size:50}")
+    private int batchSize;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    private final TransactionTemplate batchTransaction;
+
+    public ThreadPruneServiceImpl(PlatformTransactionManager transactionManager) {
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${app.prune.initial_delay_ms:60000}", fixedDelayString = "${app.prune.interval_ms:300000}")
+    public void pruneAll() {
+        for (Section section : sectionRepository.findAll()) {
+            try {
+                prune(section);
+            } catch (RuntimeException e) {
+                //Se reintenta en la próxima pasada (p. ej. una respuesta llegó al hilo mientras se borraba)
+                System.err.println("Error pruning section " + section.getSectionType() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public int prune(Section section) {
+        int maxThreads = maxThreadsOf(section);
+        int pruned = 0;
+
+        while (true) {
+            long excess = postRepository.countBySectionApproved(section.getId(), PUBLIC_STATUSES) - maxThreads;
+            if (excess <= 0) {
+                return pruned;
+            }
+
+            List<UUID> threadIds = postRepository.findLeastBumpedIds(section.getId(), PUBLIC_STATUSES,
+                    PageRequest.of(0, (int) Math.min(excess, batchSize)));
+            Map<UUID, ThreadStamp> archived = archiveEnabled ? archive(threadIds) : null;
+            List<UUID> removable = archiveEnabled ? new ArrayList<>(archived.keySet()) : threadIds;
+            //Sin nada que borrar el exceso no baja: se reintenta en la próxima pasada
+            if (removable.isEmpty()) {
+                return pruned;
+            }
+
+            PrunedBatch batch;
+            try {
+                batch = batchTransaction.execute(status -> deleteThreads(section, removable, archived));
+            } catch (RuntimeException e) {
+                if (archiveEnabled) {
+                    discardArchives(archived.keySet());
+                }
+                throw e;
+            }
+            if (archiveEnabled) {
+                publishArchives(archived.keySet(), batch.threadIds());
+            }
+            releaseFiles(batch.files());
+            //Todos cambiaron mientras se archivaban: se reintenta en la próxima pasada
+            if (batch.threadIds().isEmpty()) {
+                return pruned;
+            }
+            pruned += batch.threadIds().size();
+        }
+    }
+
+    //Borrado en bloque: las respuestas primero (FK a post), después los hilos y el contador de la sección.
+    //Con archivo, solo los hilos que siguen igual que cuando se archivaron (la copia es inmutable)
+    private PrunedBatch deleteThreads(Section section, List<UUID> candidates, Map<UUID, ThreadStamp> archived) {
+        postRepository.lockByIds(candidates);
+        List<UUID> threadIds = new ArrayList<>(candidates.size());
+        if (archived == null) {
+            threadIds.addAll(candidates);
+        } else {
+            stampsOf(candidates).forEach((threadId, stamp) -> {
+                if (stamp.equals(archived.get(threadId))) {
+                    threadIds.add(threadId);
+                }
+            });
+        }
+        if (threadIds.isEmpty()) {
+            return new PrunedBatch(threadIds, List.of());
+        }
+
+        List<String> files = new ArrayList<>(postRepository.findFileUrlsByIds(threadIds));
+        files.addAll(rePostRepository.findFileUrlsByPostIds(threadIds));
+
+        threadIds.forEach(postReferenceService::removeThread);
+        rePostRepository.deleteAllByPostIds(threadIds);
+        int deleted = postRepository.deleteAllByIds(threadIds);
+        sectionRepository.decrementPostCount(section.getId(), deleted);
+
+        //Feed, catálogo, índice de búsqueda y versiones se actualizan tras el commit
+        threadIds.forEach(threadId -> publicationChangeService.threadDeleted(section.getSectionType(), threadId));
+        return new PrunedBatch(threadIds, files);
+    }
+
+    //Fuera de la transacción del borrado: renderizar un hilo largo no debe retener sus bloqueos.
+    //El estado se lee antes de archivar; cualquier cambio posterior hace que el hilo no se borre
+    private Map<UUID, ThreadStamp> archive(List<UUID> threadIds) {
+        Map<UUID, ThreadStamp> stamps = stampsOf(threadIds);
+        Map<UUID, ThreadStamp> archived = new HashMap<>(threadIds.size());
+        for (UUID threadId : threadIds) {
+            ThreadStamp stamp = stamps.get(threadId);
+            if (stamp == null) {
+                continue;
+            }
+            try {
+                if (threadArchiveService.archive(threadId)) {
+                    archived.put(threadId, stamp);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Error archiving thread " + threadId + ": " + e.getMessage());
+            }
+        }
+        return archived;
+    }
+
+    //Solo los hilos borrados pasan a servirse desde el archivo; el resto sigue vivo
+    private void publishArchives(Collection<UUID> archived, List<UUID> deleted) {
+        Set<UUID> deletedIds = new HashSet<>(deleted);
+        for (UUID threadId : archived) {
+            try {
+                if (deletedIds.contains(threadId)) {
+                    threadArchiveService.publish(threadId);
+                } else {
+                    threadArchiveService.discard(threadId);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Error publishing archive of thread " + threadId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void discardArchives(Collection<UUID> archived) {
+        for (UUID threadId : archived) {
+            try {
+                threadArchiveService.discard(threadId);
+            } catch (RuntimeException e) {
+                System.err.println("Error discarding archive of thread " + threadId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Map<UUID, ThreadStamp> stampsOf(Collection<UUID> threadIds) {
+        Map<UUID, ThreadStamp> stamps = new HashMap<>(threadIds.size());
+        for (ThreadState state : postRepository.findThreadStates(threadIds, PUBLIC_STATUSES)) {
+            stamps.put(state.getPostId(), new ThreadStamp(state.getUpdatedDate(), state.getLastBumpedAt(),
+                    state.getReplyCount(), state.getApprovedReplies(), state.getLastReplyUpdate()));
+        }
+        return stamps;
+    }
+
+    private void releaseFiles(List<String> files) {
+        for (String file : files) {
+            try {
+                fileStorageServiceImpl.deleteFile(file);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error deleting pruned file " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private int maxThreadsOf(Section section) {
+        return section.getMaxThreads() != null ? section.getMaxThreads() : defaultMaxThreads;
+    }
+
+    private record PrunedBatch(List<UUID> threadIds, List<String> files) {
+    }
+
+    private record ThreadStamp(LocalDateTime updatedDate, LocalDateTime lastBumpedAt, Integer replyCount,
+                               Long approvedReplies, LocalDateTime lastReplyUpdate) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.references;
+
+import com.alexander.spring.r_chan.r_chan.dtos.publications.BacklinkDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface PostReferenceService {
+    void indexReferences(UUID sourceId, Long sourceNumber, UUID sourceThreadId, String content);
+    void removeSource(UUID sourceId);
+    void removeThread(UUID threadId);
+    void sourceVisibilityChanged(UUID sourceId, UUID sourceThreadId);
+    Map<UUID, List<BacklinkDTO>> findBacklinks(Collection<UUID> targetIds);
+}
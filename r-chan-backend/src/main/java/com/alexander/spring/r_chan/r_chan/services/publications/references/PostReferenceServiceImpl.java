@@ -0,0 +1,158 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.references;
+
+import com.alexander.spring.r_chan.r_chan.dtos.publications.BacklinkDTO;
+import com.alexander.spring.r_chan.r_chan.entity.PostReference;
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.repository.PostReferenceRepository;
+import com.alexander.spring.r_chan.r_chan.repository.PostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.RePostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.projection.Backlink;
+import com.alexander.spring.r_chan.r_chan.repository.projection.ReferenceTarget;
+import com.alexander.spring.r_chan.r_chan.services.publications.changes.PublicationChangeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de citas entre posts. El contenido se analiza una sola vez, al guardar o editar;
+ * las vistas de hilo solo leen la tabla post_reference por target_id.
+ */
+@Service
+@Transactional
+public class PostReferenceServiceImpl implements PostReferenceService {
+
+    private static final List<ApprovalStatus> APPROVED_STATUSES =
+            List.of(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED);
+
+    //El UUID va primero: sus primeros 8 caracteres también podrían leerse como un número
+    private static final Pattern QUOTE = Pattern.compile(
+            ">>(?:([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})|(\\d{1,18}))");
+
+    @Autowired
+    private PostReferenceRepository postReferenceRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private RePostRepository rePostRepository;
+
+    @Autowired
+    private PublicationChangeService publicationChangeService;
+
+    //Tope de citas por mensaje para que un mensaje lleno de >>n no genere miles de filas
+    @Value("${app.reference.max_per_post:50}")
+    private int maxPerPost;
+
+    @Override
+    public void indexReferences(UUID sourceId, Long sourceNumber, UUID sourceThreadId, String content) {
+        Set<UUID> changedThreads = clearSource(sourceId);
+
+        Set<Long> numbers = new LinkedHashSet<>();
+        Set<UUID> ids = new LinkedHashSet<>();
+        parse(content, numbers, ids);
+
+        List<PostReference> references = new ArrayList<>();
+        for (ReferenceTarget target : resolve(numbers, ids)) {
+            if (target.getId().equals(sourceId)) {
+                continue;
+            }
+            references.add(new PostReference(null, sourceId, sourceNumber, sourceThreadId,
+                    target.getId(), target.getNumber(), target.getThreadId()));
+            changedThreads.add(target.getThreadId());
+        }
+        postReferenceRepository.saveAll(references);
+
+        notifyTargets(changedThreads, sourceThreadId);
+    }
+
+    @Override
+    public void removeSource(UUID sourceId) {
+        notifyTargets(clearSource(sourceId), null);
+    }
+
+    @Override
+    public void removeThread(UUID threadId) {
+        List<PostReference> references = postReferenceRepository.findBySourceThreadId(threadId);
+        Set<UUID> threads = new HashSet<>();
+        references.forEach(reference -> threads.add(reference.getTargetThreadId()));
+        postReferenceRepository.deleteAllInBatch(references);
+        notifyTargets(threads, threadId);
+    }
+
+    //Los backlinks solo muestran citas de mensajes visibles: aprobar o rechazar el mensaje cambia los hilos citados
+    @Override
+    public void sourceVisibilityChanged(UUID sourceId, UUID sourceThreadId) {
+        Set<UUID> threads = new HashSet<>();
+        postReferenceRepository.findBySourceId(sourceId).forEach(reference -> threads.add(reference.getTargetThreadId()));
+        notifyTargets(threads, sourceThreadId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, List<BacklinkDTO>> findBacklinks(Collection<UUID> targetIds) {
+        Map<UUID, List<BacklinkDTO>> backlinks = new HashMap<>();
+        if (targetIds.isEmpty()) {
+            return backlinks;
+        }
+
+        for (Backlink row : postReferenceRepository.findVisibleBacklinks(targetIds, APPROVED_STATUSES)) {
+            backlinks.computeIfAbsent(row.getTargetId(), id -> new ArrayList<>())
+                    .add(new BacklinkDTO(row.getSourceId(), row.getSourceNumber(), row.getSourceThreadId()));
+        }
+        return backlinks;
+    }
+
+    //Borra las citas anteriores del mensaje y devuelve los hilos que las mostraban
+    private Set<UUID> clearSource(UUID sourceId) {
+        List<PostReference> previous = postReferenceRepository.findBySourceId(sourceId);
+        Set<UUID> threads = new HashSet<>();
+        previous.forEach(reference -> threads.add(reference.getTargetThreadId()));
+        postReferenceRepository.deleteAllInBatch(previous);
+        return threads;
+    }
+
+    private void parse(String content, Set<Long> numbers, Set<UUID> ids) {
+        if (content == null || content.indexOf(">>") < 0) {
+            return;
+        }
+
+        Matcher matcher = QUOTE.matcher(content);
+        while (matcher.find() && numbers.size() + ids.size() < maxPerPost) {
+            if (matcher.group(1) != null) {
+                ids.add(UUID.fromString(matcher.group(1)));
+            } else {
+                numbers.add(Long.parseLong(matcher.group(2)));
+            }
+        }
+    }
+
+    //Un número o un id puede ser de un post o de una respuesta; los números no se repiten entre ambos
+    private List<ReferenceTarget> resolve(Set<Long> numbers, Set<UUID> ids) {
+        List<ReferenceTarget> targets = new ArrayList<>();
+        if (!numbers.isEmpty()) {
+            targets.addAll(postRepository.findReferenceTargetsByNumber(numbers));
+            targets.addAll(rePostRepository.findReferenceTargetsByNumber(numbers));
+        }
+        if (!ids.isEmpty()) {
+            targets.addAll(postRepository.findReferenceTargetsById(ids));
+            targets.addAll(rePostRepository.findReferenceTargetsById(ids));
+        }
+        return targets;
+    }
+
+    //El hilo que cita ya avisa por su propio camino; aquí solo los hilos citados
+    private void notifyTargets(Set<UUID> threads, UUID sourceThreadId) {
+        if (sourceThreadId != null) {
+            threads.remove(sourceThreadId);
+        }
+        if (!threads.isEmpty()) {
+            publicationChangeService.backlinksChanged(threads);
+        }
+    }
+}
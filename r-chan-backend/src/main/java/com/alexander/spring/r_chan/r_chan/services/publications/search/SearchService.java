@@ -0,0 +1,16 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.search;
+
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.SearchHitDTO;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface SearchService {
+    CursorPageDTO<SearchHitDTO> search(String query, SectionEnum sectionType, String cursor, int size);
+    void postChanged(UUID postId);
+    void replyChanged(UUID rePostId);
+    boolean rebuild();
+    Map<String, Object> stats();
+}
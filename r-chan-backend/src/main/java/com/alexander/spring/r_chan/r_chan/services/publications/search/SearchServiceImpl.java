@@ -0,0 +1,471 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.search;
+
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.DeltaCursor;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.FeedCursor;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.SearchHitDTO;
+import com.alexander.spring.r_chan.r_chan.entity.Post;
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.exceptions.InvalidSearchQueryException;
+import com.alexander.spring.r_chan.r_chan.repository.PostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.RePostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.projection.SearchSource;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice invertido (Lucene, embebido) de los posts y respuestas aprobados.
+ * Las escrituras solo encolan el id tras el commit; una tarea programada relee esas filas de MySQL
+ * y actualiza el índice, así que el índice nunca guarda datos que la base de datos no confirmó.
+ * Los documentos se guardan ordenados por (createdDate, id) descendente, el mismo orden de los resultados:
+ * cada página termina en cuanto reúne size + 1 coincidencias, sin recorrer todas.
+ */
+@Service
+public class SearchServiceImpl implements SearchService {
+
+    private static final List<ApprovalStatus> PUBLIC_STATUSES =
+            List.of(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED);
+
+    public static final String POST_KIND = "post";
+    public static final String REPLY_KIND = "reply";
+
+    private static final String F_ID = "id";
+    private static final String F_KIND = "kind";
+    private static final String F_THREAD = "thread";
+    private static final String F_SECTION = "section";
+    private static final String F_NUMBER = "number";
+    private static final String F_CREATED = "created";
+    private static final String F_TITLE = "title";
+    private static final String F_CONTENT = "content";
+    private static final String F_PREVIEW = "preview";
+
+    private static final Sort NEWEST_FIRST = new Sort(
+            new SortField(F_CREATED, SortField.Type.LONG, true),
+            new SortField(F_ID, SortField.Type.STRING, true));
+
+    //Sin comodines ni búsqueda difusa: son las consultas que recorren el diccionario entero
+    private static final int QUERY_FLAGS = SimpleQueryParser.AND_OPERATOR | SimpleQueryParser.OR_OPERATOR
+            | SimpleQueryParser.NOT_OPERATOR | SimpleQueryParser.PHRASE_OPERATOR
+            | SimpleQueryParser.PRECEDENCE_OPERATORS | SimpleQueryParser.ESCAPE_OPERATOR
+            | SimpleQueryParser.WHITESPACE_OPERATOR;
+
+    private static final int REBUILD_BATCH = 500;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private RePostRepository rePostRepository;
+
+    @Value("${app.search.max_query_length:200}")
+    private int maxQueryLength;
+
+    private final int rebuildThreads;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+
+    //Se reabren si una reconstrucción falla (rollback cierra el writer)
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+
+    //Ids pendientes de reindexar; un id repetido antes de aplicarse se indexa una sola vez
+    private final Set<UUID> pendingPosts = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pendingReplies = ConcurrentHashMap.newKeySet();
+
+    //Serializa la aplicación de cambios, el commit y el inicio de una reconstrucción
+    private final Object indexLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong lastRebuildMillis = new AtomicLong(-1);
+    private final AtomicLong lastRebuildDocs = new AtomicLong(-1);
+
+    public SearchServiceImpl(
+            @Value("${app.search.index_dir:./data/search-index}") String indexDir,
+            @Value("${app.search.rebuild_threads:4}") int rebuildThreads) throws IOException {
+        this.rebuildThreads = Math.max(1, rebuildThreads);
+        this.directory = FSDirectory.open(Path.of(indexDir));
+        openWriter();
+    }
+
+    private void openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        config.setIndexSort(NEWEST_FIRST);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (indexLock) {
+            searcherManager.close();
+            if (rebuilding.get()) {
+                //Una reconstrucción a medias no se guarda: el próximo arranque sigue con el índice anterior
+                writer.rollback();
+            } else {
+                //commitOnClose: lo aplicado hasta ahora queda en disco
+                writer.close();
+            }
+            directory.close();
+        }
+    }
+
+    //Primer arranque (o índice borrado): se construye desde MySQL
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public CursorPageDTO<SearchHitDTO> search(String query, SectionEnum sectionType, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidSearchQueryException("Search query is required");
+        }
+        if (query.length() > maxQueryLength) {
+            throw new InvalidSearchQueryException("Search query exceeds " + maxQueryLength + " characters");
+        }
+        FeedCursor after = FeedCursor.decode(cursor, FeedCursor.CREATED_DATE);
+        int limit = FeedCursor.clampSize(size);
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(F_TITLE, 1f, F_CONTENT, 1f), QUERY_FLAGS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query text = parser.parse(query);
+        if (text == null || text instanceof MatchNoDocsQuery) {
+            return new CursorPageDTO<>(List.of(), limit, false, null);
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(text, BooleanClause.Occur.MUST);
+        if (sectionType != null) {
+            builder.add(new TermQuery(new Term(F_SECTION, sectionType.name())), BooleanClause.Occur.FILTER);
+        }
+        Query filtered = builder.build();
+
+        SearcherManager manager = searcherManager;
+        try {
+            IndexSearcher searcher = manager.acquire();
+            try {
+                TopDocs top = after == null
+                        ? searcher.search(filtered, limit + 1, NEWEST_FIRST)
+                        : searcher.searchAfter(toFieldDoc(after), filtered, limit + 1, NEWEST_FIRST);
+
+                StoredFields storedFields = searcher.storedFields();
+                List<SearchHitDTO> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    hits.add(toHit(storedFields.document(scoreDoc.doc)));
+                }
+                return FeedCursor.toPage(hits, limit, FeedCursor.CREATED_DATE,
+                        SearchHitDTO::getCreatedDate, SearchHitDTO::getId);
+            } finally {
+                manager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading search index", e);
+        }
+    }
+
+    @Override
+    public void postChanged(UUID postId) {
+        pendingPosts.add(postId);
+    }
+
+    @Override
+    public void replyChanged(UUID rePostId) {
+        pendingReplies.add(rePostId);
+    }
+
+    /**
+     * Aplica los cambios encolados y publica un searcher nuevo.
+     * Durante una reconstrucción los cambios se acumulan y se aplican al terminar,
+     * así que ninguna fila leída por la reconstrucción pisa una versión más reciente.
+     */
+    @Scheduled(fixedDelayString = "${app.search.refresh_ms:1000}")
+    public void applyPending() {
+        synchronized (indexLock) {
+            if (rebuilding.get() || (pendingPosts.isEmpty() && pendingReplies.isEmpty())) {
+                return;
+            }
+            try {
+                drain(pendingPosts, this::indexPost);
+                drain(pendingReplies, this::indexReply);
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                System.err.println("Search index update failed, will retry: " + e.getMessage());
+            }
+        }
+    }
+
+    //El commit (fsync) es caro: se agrupa; los cambios ya son visibles para las búsquedas desde el refresh
+    @Scheduled(fixedDelayString = "${app.search.commit_ms:30000}")
+    public void commit() {
+        synchronized (indexLock) {
+            if (rebuilding.get() || !writer.hasUncommittedChanges()) {
+                return;
+            }
+            try {
+                writer.commit();
+            } catch (IOException e) {
+                System.err.println("Search index commit failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private interface IndexAction {
+        void apply(UUID id) throws IOException;
+    }
+
+    private void drain(Set<UUID> pending, IndexAction action) throws IOException {
+        Iterator<UUID> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            UUID id = iterator.next();
+            iterator.remove();
+            try {
+                action.apply(id);
+            } catch (IOException | RuntimeException e) {
+                //Se reintenta en la próxima pasada
+                pending.add(id);
+                throw e;
+            }
+        }
+    }
+
+    //Un post arrastra sus respuestas: si deja de ser visible o cambia de sección, cambian también ellas
+    private void indexPost(UUID postId) throws IOException {
+        Optional<SearchSource> post = postRepository.findSearchSourceById(postId);
+        if (post.isEmpty() || !isPublic(post.get().getApprovalStatus())) {
+            writer.deleteDocuments(new Term(F_ID, postId.toString()), new Term(F_THREAD, postId.toString()));
+            return;
+        }
+
+        writer.updateDocument(new Term(F_ID, postId.toString()), toDocument(post.get(), POST_KIND));
+        writer.deleteDocuments(new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(F_THREAD, postId.toString())), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term(F_KIND, REPLY_KIND)), BooleanClause.Occur.FILTER)
+                .build());
+        for (SearchSource reply : rePostRepository.findSearchSourcesByPostId(postId, PUBLIC_STATUSES)) {
+            writer.addDocument(toDocument(reply, REPLY_KIND));
+        }
+    }
+
+    private void indexReply(UUID rePostId) throws IOException {
+        Term idTerm = new Term(F_ID, rePostId.toString());
+        Optional<SearchSource> reply = rePostRepository.findSearchSourceById(rePostId);
+        if (reply.isPresent() && isPublic(reply.get().getApprovalStatus())
+                && isPublic(reply.get().getThreadApprovalStatus())) {
+            writer.updateDocument(idTerm, toDocument(reply.get(), REPLY_KIND));
+        } else {
+            writer.deleteDocuments(idTerm);
+        }
+    }
+
+    /**
+     * Reconstruye el índice desde MySQL en segundo plano, una tarea por sección y tipo.
+     * Las búsquedas siguen viendo el índice anterior hasta que la reconstrucción termina.
+     * @return false si ya había una reconstrucción en curso.
+     */
+    @Override
+    public boolean rebuild() {
+        synchronized (indexLock) {
+            if (!rebuilding.compareAndSet(false, true)) {
+                return false;
+            }
+            try {
+                //Punto al que volver si la reconstrucción falla
+                writer.commit();
+                writer.deleteAll();
+            } catch (IOException e) {
+                rebuilding.set(false);
+                throw new UncheckedIOException("Error starting search index rebuild", e);
+            }
+        }
+
+        Thread coordinator = new Thread(this::runRebuild, "search-rebuild");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return true;
+    }
+
+    private void runRebuild() {
+        long start = System.currentTimeMillis();
+        ExecutorService workers = Executors.newFixedThreadPool(rebuildThreads, runnable -> {
+            Thread thread = new Thread(runnable, "search-rebuild-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Callable<Long>> tasks = new ArrayList<>();
+            for (SectionEnum sectionType : SectionEnum.values()) {
+                tasks.add(() -> indexAll(sectionType, POST_KIND));
+                tasks.add(() -> indexAll(sectionType, REPLY_KIND));
+            }
+
+            long docs = 0;
+            for (Future<Long> result : workers.invokeAll(tasks)) {
+                docs += result.get();
+            }
+
+            synchronized (indexLock) {
+                writer.commit();
+                searcherManager.maybeRefresh();
+                lastRebuildDocs.set(docs);
+                lastRebuildMillis.set(System.currentTimeMillis() - start);
+                rebuilding.set(false);
+            }
+        } catch (Exception e) {
+            System.err.println("Search index rebuild failed, keeping previous index: " + e.getMessage());
+            rollback();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    //IndexWriter admite escrituras concurrentes: cada tarea recorre su sección por keyset
+    private long indexAll(SectionEnum sectionType, String kind) throws IOException {
+        LocalDateTime createdDate = LocalDateTime.of(1970, 1, 1, 0, 0);
+        UUID id = DeltaCursor.MIN_ID;
+        long docs = 0;
+
+        while (true) {
+            List<SearchSource> batch = POST_KIND.equals(kind)
+                    ? postRepository.findSearchSourcesAfter(sectionType, PUBLIC_STATUSES, createdDate, id,
+                            PageRequest.of(0, REBUILD_BATCH))
+                    : rePostRepository.findSearchSourcesAfter(sectionType, PUBLIC_STATUSES, createdDate, id,
+                            PageRequest.of(0, REBUILD_BATCH));
+            for (SearchSource source : batch) {
+                writer.addDocument(toDocument(source, kind));
+            }
+            docs += batch.size();
+
+            if (batch.size() < REBUILD_BATCH) {
+                return docs;
+            }
+            SearchSource last = batch.get(batch.size() - 1);
+            createdDate = last.getCreatedDate();
+            id = last.getId();
+        }
+    }
+
+    private void rollback() {
+        synchronized (indexLock) {
+            SearcherManager previous = searcherManager;
+            try {
+                writer.rollback();
+                openWriter();
+                previous.close();
+            } catch (IOException e) {
+                System.err.println("Search index could not be reopened: " + e.getMessage());
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("documents", writer.getDocStats().numDocs);
+        stats.put("pendingPosts", pendingPosts.size());
+        stats.put("pendingReplies", pendingReplies.size());
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("lastRebuildDocs", lastRebuildDocs.get());
+        stats.put("lastRebuildMillis", lastRebuildMillis.get());
+        return stats;
+    }
+
+    private Document toDocument(SearchSource source, String kind) {
+        long created = toMillis(source.getCreatedDate());
+        Document document = new Document();
+        document.add(new StringField(F_ID, source.getId().toString(), Field.Store.YES));
+        document.add(new SortedDocValuesField(F_ID, new BytesRef(source.getId().toString())));
+        document.add(new StringField(F_KIND, kind, Field.Store.YES));
+        document.add(new StringField(F_THREAD, source.getThreadId().toString(), Field.Store.YES));
+        document.add(new StringField(F_SECTION, source.getSectionType().name(), Field.Store.YES));
+        document.add(new NumericDocValuesField(F_CREATED, created));
+        document.add(new StoredField(F_CREATED, created));
+        if (source.getNumber() != null) {
+            document.add(new StoredField(F_NUMBER, source.getNumber()));
+        }
+        //El título de una respuesta es el de su hilo: no se indexa para que no coincida con él
+        if (POST_KIND.equals(kind) && source.getTitle() != null) {
+            document.add(new TextField(F_TITLE, source.getTitle(), Field.Store.YES));
+        }
+        if (source.getContent() != null) {
+            document.add(new TextField(F_CONTENT, source.getContent(), Field.Store.NO));
+            document.add(new StoredField(F_PREVIEW, Post.previewOf(source.getContent())));
+        }
+        return document;
+    }
+
+    private SearchHitDTO toHit(Document document) {
+        return new SearchHitDTO(
+                UUID.fromString(document.get(F_ID)),
+                storedLong(document, F_NUMBER),
+                UUID.fromString(document.get(F_THREAD)),
+                document.get(F_KIND),
+                SectionEnum.valueOf(document.get(F_SECTION)),
+                document.get(F_TITLE),
+                document.get(F_PREVIEW),
+                fromMillis(storedLong(document, F_CREATED)));
+    }
+
+    private static Long storedLong(Document document, String field) {
+        IndexableField stored = document.getField(field);
+        return stored != null ? stored.numericValue().longValue() : null;
+    }
+
+    //El cursor sale de fromMillis, así que la conversión es exacta en los dos sentidos
+    private static FieldDoc toFieldDoc(FeedCursor cursor) {
+        return new FieldDoc(Integer.MAX_VALUE, Float.NaN,
+                new Object[]{toMillis(cursor.getValue()), new BytesRef(cursor.getId().toString())});
+    }
+
+    private static long toMillis(LocalDateTime date) {
+        return date.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private boolean isPublic(ApprovalStatus status) {
+        return status != null && status.isPublic();
+    }
+}
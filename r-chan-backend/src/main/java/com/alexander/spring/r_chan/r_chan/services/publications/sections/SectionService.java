@@ -14,6 +14,8 @@ public interface SectionService {
     com.alexander.spring.r_chan.r_chan.entity.Section findByIdE(UUID id);
     com.alexander.spring.r_chan.r_chan.entity.Section findBySectionType(SectionEnum sectionEnumType);
     SectionDTO updateSectionStatus(UUID id, SectionStatus newStatus);
+    SectionDTO updateBumpLimit(UUID id, Integer bumpLimit);
+    SectionDTO updateMaxThreads(UUID id, Integer maxThreads);
     void incrementPostCount(UUID sectionId);
     void decrementPostCount(UUID sectionId);
 }
\ No newline at end of file
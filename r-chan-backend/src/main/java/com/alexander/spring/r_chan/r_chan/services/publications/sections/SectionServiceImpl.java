@@ -72,6 +72,30 @@ public class SectionServiceImpl implements SectionService {
         return new SectionDTO(sectionDB);
     }
 
+    //Cambia el bump limit de una sección; null vuelve al valor por defecto (app.thread.bump_limit)
+    @Transactional
+    public SectionDTO updateBumpLimit(UUID id, Integer bumpLimit) {
+        com.alexander.spring.r_chan.r_chan.entity.Section sectionDB = sectionRepository.findById(id)
+                .orElseThrow(() -> new SectionNotFoundException(id));
+
+        sectionDB.setBumpLimit(bumpLimit);
+        sectionRepository.save(sectionDB);
+
+        return new SectionDTO(sectionDB);
+    }
+
+    //Cambia el máximo de hilos de una sección; null vuelve al valor por defecto (app.thread.max_threads)
+    @Transactional
+    public SectionDTO updateMaxThreads(UUID id, Integer maxThreads) {
+        com.alexander.spring.r_chan.r_chan.entity.Section sectionDB = sectionRepository.findById(id)
+                .orElseThrow(() -> new SectionNotFoundException(id));
+
+        sectionDB.setMaxThreads(maxThreads);
+        sectionRepository.save(sectionDB);
+
+        return new SectionDTO(sectionDB);
+    }
+
     //Métodos para manejar el contador de posts
     @Transactional
     public void incrementPostCount(UUID sectionId) {
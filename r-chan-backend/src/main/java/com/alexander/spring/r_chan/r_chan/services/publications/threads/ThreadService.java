@@ -0,0 +1,12 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.threads;
+
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.DeltaCursor;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.ThreadDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.ThreadDeltaDTO;
+
+import java.util.UUID;
+
+public interface ThreadService {
+    ThreadDTO findThread(UUID postId, String cursor, Integer size);
+    ThreadDeltaDTO findRepliesSince(UUID postId, DeltaCursor after);
+}
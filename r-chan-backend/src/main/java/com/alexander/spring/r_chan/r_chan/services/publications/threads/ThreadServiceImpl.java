@@ -0,0 +1,126 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.threads;
+
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.CursorPageDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.DeltaCursor;
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.FeedCursor;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostSummaryDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.ThreadDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.ThreadDeltaDTO;
+import com.alexander.spring.r_chan.r_chan.entity.Post;
+import com.alexander.spring.r_chan.r_chan.entity.RePost;
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.exceptions.PostNotFoundException;
+import com.alexander.spring.r_chan.r_chan.repository.PostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.RePostRepository;
+import com.alexander.spring.r_chan.r_chan.services.publications.references.PostReferenceService;
+import com.alexander.spring.r_chan.r_chan.services.publications.versioning.ContentVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Service
+@Transactional(readOnly = true)
+public class ThreadServiceImpl implements ThreadService {
+
+    private static final List<ApprovalStatus> APPROVED_STATUSES =
+            List.of(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private RePostRepository rePostRepository;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private PostReferenceService postReferenceService;
+
+    //Tope de respuestas por petición; los hilos más largos se piden por cursor
+    @Value("${app.thread.max_replies:500}")
+    private int maxReplies;
+
+    //Margen hacia atrás al cerrar un delta: updatedDate se fija antes del commit y una escritura
+    //más lenta puede hacerse visible con una marca anterior a la última ya entregada
+    @Value("${app.thread.since_overlap_ms:2000}")
+    private long sinceOverlapMs;
+
+    @Override
+    public ThreadDTO findThread(UUID postId, String cursor, Integer size) {
+        FeedCursor after = FeedCursor.decode(cursor, FeedCursor.CREATED_DATE);
+        int limit = Math.max(1, Math.min(size != null ? size : maxReplies, maxReplies));
+
+        //Una consulta para el post y la página (cada fila trae el post y una respuesta o null) y otra para el total
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        List<Object[]> rows = after == null
+                ? postRepository.findThreadFirst(postId, APPROVED_STATUSES, fetch)
+                : postRepository.findThreadAfter(postId, APPROVED_STATUSES, after.getValue(), after.getId(), fetch);
+
+        if (rows.isEmpty()) {
+            throw new PostNotFoundException(postId);
+        }
+
+        Post post = (Post) rows.get(0)[0];
+        long replyCount = rePostRepository.countByPost_IdAndApprovalStatusIn(postId, APPROVED_STATUSES);
+
+        List<RePost> replies = rows.stream()
+                .map(row -> (RePost) row[1])
+                .filter(Objects::nonNull)
+                .toList();
+
+        CursorPageDTO<RePostSummaryDTO> page = FeedCursor.toPage(replies, limit, FeedCursor.CREATED_DATE,
+                RePost::getCreatedDate, RePost::getId).map(RePostSummaryDTO::new);
+
+        //Backlinks ya indexados al escribir: una consulta por id, sin volver a analizar contenido
+        List<UUID> messageIds = new ArrayList<>(page.getContent().size() + 1);
+        messageIds.add(post.getId());
+        page.getContent().forEach(reply -> messageIds.add(reply.getId()));
+
+        return new ThreadDTO(new PostDTO(post, (int) replyCount), page,
+                postReferenceService.findBacklinks(messageIds));
+    }
+
+    @Override
+    public ThreadDeltaDTO findRepliesSince(UUID postId, DeltaCursor after) {
+        //La versión se lee antes de consultar: un cambio durante la consulta se verá en el siguiente polling
+        String epoch = contentVersionService.epoch();
+        long version = contentVersionService.threadVersion(postId);
+        LocalDateTime since = after != null
+                ? after.getUpdatedDate()
+                : LocalDateTime.now().minus(Duration.ofMillis(sinceOverlapMs));
+        UUID sinceId = after != null ? after.getId() : DeltaCursor.MIN_ID;
+
+        List<RePost> rows = rePostRepository.findByPostIdApprovedUpdatedAfter(
+                postId, APPROVED_STATUSES, since, sinceId, PageRequest.of(0, maxReplies + 1));
+
+        boolean hasMore = rows.size() > maxReplies;
+        List<RePost> changed = hasMore ? rows.subList(0, maxReplies) : rows;
+
+        DeltaCursor next;
+        if (hasMore) {
+            //Página intermedia: se sigue exactamente desde la última fila y sin comparar versión
+            RePost last = changed.get(changed.size() - 1);
+            next = new DeltaCursor(epoch, DeltaCursor.UNKNOWN_VERSION, last.getUpdatedDate(), last.getId());
+        } else if (changed.isEmpty()) {
+            next = new DeltaCursor(epoch, version, since, sinceId);
+        } else {
+            //Se retrocede el margen: algunas respuestas pueden repetirse y el cliente las aplica por id
+            LocalDateTime latest = changed.get(changed.size() - 1).getUpdatedDate();
+            next = new DeltaCursor(epoch, version, latest.minus(Duration.ofMillis(sinceOverlapMs)), DeltaCursor.MIN_ID);
+        }
+
+        return new ThreadDeltaDTO(changed.stream().map(RePostSummaryDTO::new).toList(), hasMore, next.encode());
+    }
+}
@@ -0,0 +1,21 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.versioning;
+
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface ContentVersionService {
+    long feedVersion();
+    long sectionVersion(SectionEnum sectionType);
+    long threadVersion(UUID postId);
+    String epoch();
+    Map<SectionEnum, Long> sectionVersions();
+    void bumpSection(SectionEnum sectionType);
+    void bumpThread(UUID postId);
+    void removeThread(UUID postId);
+    String feedETag();
+    String sectionETag(SectionEnum sectionType);
+    String threadETag(UUID postId);
+    boolean matches(String ifNoneMatch, String eTag);
+}
@@ -0,0 +1,130 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.versioning;
+
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versiones en memoria del feed, de cada sección y de cada hilo. Solo avanzan, y lo hacen
+ * desde las escrituras de posts y respuestas; con ellas se arman ETags débiles sin tocar la base de datos.
+ * Las versiones de hilo salen de una secuencia común y los hilos borrados o podados dejan el mapa;
+ * un hilo sin entrada toma el piso, que supera a toda versión entregada antes de la última baja.
+ */
+@Service
+public class ContentVersionServiceImpl implements ContentVersionService {
+
+    //Identifica este arranque: tras un reinicio las versiones vuelven a 0 y no deben coincidir con ETags viejos
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong feedVersion = new AtomicLong();
+    private final Map<SectionEnum, AtomicLong> sectionVersions = new EnumMap<>(SectionEnum.class);
+    private final ConcurrentHashMap<UUID, Long> threadVersions = new ConcurrentHashMap<>();
+    private final AtomicLong threadSequence = new AtomicLong();
+    //Versión de los hilos sin entrada; sube en cada baja para que un ETag viejo de un hilo borrado no dé 304
+    private final AtomicLong threadFloor = new AtomicLong();
+
+    public ContentVersionServiceImpl() {
+        for (SectionEnum sectionType : SectionEnum.values()) {
+            sectionVersions.put(sectionType, new AtomicLong());
+        }
+    }
+
+    @Override
+    public long feedVersion() {
+        return feedVersion.get();
+    }
+
+    @Override
+    public long sectionVersion(SectionEnum sectionType) {
+        return sectionVersions.get(sectionType).get();
+    }
+
+    @Override
+    public long threadVersion(UUID postId) {
+        Long version = threadVersions.get(postId);
+        return version != null ? version : threadFloor.get();
+    }
+
+    @Override
+    public String epoch() {
+        return epoch;
+    }
+
+    //Copia de las versiones de todas las secciones; cada valor se lee sin bloquear
+    @Override
+    public Map<SectionEnum, Long> sectionVersions() {
+        Map<SectionEnum, Long> versions = new EnumMap<>(SectionEnum.class);
+        sectionVersions.forEach((sectionType, version) -> versions.put(sectionType, version.get()));
+        return versions;
+    }
+
+    //Cualquier cambio en una sección cambia también el feed general
+    @Override
+    public void bumpSection(SectionEnum sectionType) {
+        sectionVersions.get(sectionType).incrementAndGet();
+        feedVersion.incrementAndGet();
+    }
+
+    @Override
+    public void bumpThread(UUID postId) {
+        threadVersions.merge(postId, threadSequence.incrementAndGet(), Math::max);
+    }
+
+    //El piso sube siempre (el hilo pudo no tener entrada y seguir en el piso) y antes de quitar la entrada:
+    //en ningún momento el hilo borrado vuelve a mostrar una versión ya entregada
+    @Override
+    public void removeThread(UUID postId) {
+        threadFloor.accumulateAndGet(threadSequence.incrementAndGet(), Math::max);
+        threadVersions.remove(postId);
+    }
+
+    @Override
+    public String feedETag() {
+        return eTag("f", feedVersion());
+    }
+
+    @Override
+    public String sectionETag(SectionEnum sectionType) {
+        return eTag("s" + sectionType.ordinal(), sectionVersion(sectionType));
+    }
+
+    @Override
+    public String threadETag(UUID postId) {
+        return eTag("t" + postId, threadVersion(postId));
+    }
+
+    /**
+     * Comparación débil de If-None-Match contra el ETag actual.
+     * @param ifNoneMatch Valor de la cabecera, puede ser null, "*" o una lista separada por comas.
+     * @param eTag El ETag actual del recurso.
+     * @return true si el cliente ya tiene esta versión.
+     */
+    @Override
+    public boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+
+        String current = opaque(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || opaque(value).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String eTag(String scope, long version) {
+        return "W/\"" + scope + "-" + epoch + "-" + version + "\"";
+    }
+
+    private String opaque(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
@@ -0,0 +1,16 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.views;
+
+import com.alexander.spring.r_chan.r_chan.dtos.publications.ViewedThreadDTO;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface ThreadViewService {
+    void recordView(UUID postId);
+    long pendingViews(UUID postId);
+    List<ViewedThreadDTO> findMostViewed(SectionEnum sectionType, int size);
+    void flush();
+    Map<String, Object> stats();
+}
@@ -0,0 +1,153 @@
+package com.alexander.spring.r_chan.r_chan.services.publications.views;
+
+import com.alexander.spring.r_chan.r_chan.dtos.pagination.FeedCursor;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostSummaryDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.ViewedThreadDTO;
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import com.alexander.spring.r_chan.r_chan.repository.PostRepository;
+import com.alexander.spring.r_chan.r_chan.repository.projection.PostViewCount;
+import com.alexander.spring.r_chan.r_chan.services.publications.PostService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Visitas por hilo contadas en memoria (un LongAdder por post, sin bloqueos entre peticiones)
+ * y volcadas a post.view_count en lotes cada app.views.flush_ms.
+ * Una caída pierde como mucho las visitas de un intervalo; al apagar se vuelca lo pendiente.
+ */
+@Service
+public class ThreadViewServiceImpl implements ThreadViewService {
+
+    private static final List<ApprovalStatus> APPROVED_STATUSES =
+            List.of(ApprovalStatus.APPROVED, ApprovalStatus.AUTO_APPROVED);
+
+    private static final int UPDATE_BATCH = 1000;
+
+    //Clave del ranking sin filtro de sección
+    private static final String ALL_SECTIONS = "ALL";
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostService postService;
+
+    private final TransactionTemplate flushTransaction;
+
+    private final ConcurrentHashMap<UUID, LongAdder> counters = new ConcurrentHashMap<>();
+
+    //El ranking solo cambia al volcar, así que se guarda hasta el siguiente volcado
+    private final Map<Object, List<ViewedThreadDTO>> mostViewed = new ConcurrentHashMap<>();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    public ThreadViewServiceImpl(PlatformTransactionManager transactionManager) {
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void recordView(UUID postId) {
+        counters.computeIfAbsent(postId, id -> new LongAdder()).increment();
+        recorded.increment();
+    }
+
+    @Override
+    public long pendingViews(UUID postId) {
+        LongAdder counter = counters.get(postId);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    @Override
+    public List<ViewedThreadDTO> findMostViewed(SectionEnum sectionType, int size) {
+        Object key = sectionType != null ? sectionType : ALL_SECTIONS;
+        List<ViewedThreadDTO> top = mostViewed.computeIfAbsent(key, k -> loadMostViewed(sectionType));
+        return top.subList(0, Math.max(0, Math.min(size, top.size())));
+    }
+
+    private List<ViewedThreadDTO> loadMostViewed(SectionEnum sectionType) {
+        PageRequest limit = PageRequest.of(0, FeedCursor.MAX_PAGE_SIZE);
+        List<PostViewCount> rows = sectionType == null
+                ? postRepository.findMostViewed(APPROVED_STATUSES, limit)
+                : postRepository.findMostViewedBySectionType(sectionType, APPROVED_STATUSES, limit);
+
+        Map<UUID, PostSummaryDTO> posts = postService.findSummariesByIds(
+                        rows.stream().map(PostViewCount::getPostId).toList()).stream()
+                .collect(Collectors.toMap(PostSummaryDTO::getId, Function.identity()));
+
+        return rows.stream()
+                .filter(row -> posts.containsKey(row.getPostId()))
+                .map(row -> new ViewedThreadDTO(posts.get(row.getPostId()),
+                        (row.getViewCount() != null ? row.getViewCount() : 0) + pendingViews(row.getPostId())))
+                .toList();
+    }
+
+    /**
+     * Vuelca las visitas acumuladas. Los hilos se agrupan por delta: la mayoría tiene pocas visitas
+     * por intervalo, así que unos pocos UPDATE ... WHERE id IN (...) cubren miles de hilos.
+     * Si el volcado falla, los deltas vuelven a los contadores y se reintentan en el siguiente.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.views.flush_ms:5000}")
+    public synchronized void flush() {
+        Map<Long, List<UUID>> byDelta = new HashMap<>();
+        for (Map.Entry<UUID, LongAdder> entry : counters.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0) {
+                //Sin visitas en todo un intervalo: se suelta la entrada
+                counters.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            byDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(entry.getKey());
+        }
+        if (byDelta.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushTransaction.executeWithoutResult(status -> byDelta.forEach((delta, ids) -> {
+                for (int from = 0; from < ids.size(); from += UPDATE_BATCH) {
+                    postRepository.addViews(ids.subList(from, Math.min(from + UPDATE_BATCH, ids.size())), delta);
+                    updates.increment();
+                }
+            }));
+            byDelta.forEach((delta, ids) -> flushed.add(delta * ids.size()));
+            mostViewed.clear();
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            byDelta.forEach((delta, ids) -> ids.forEach(id ->
+                    counters.computeIfAbsent(id, key -> new LongAdder()).add(delta)));
+            System.err.println("Error flushing thread views: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedThreads", counters.size());
+        stats.put("recordedViews", recorded.sum());
+        stats.put("flushedViews", flushed.sum());
+        stats.put("updateStatements", updates.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        return stats;
+    }
+}
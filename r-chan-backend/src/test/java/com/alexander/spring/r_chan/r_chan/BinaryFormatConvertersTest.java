@@ -0,0 +1,127 @@
+package com.alexander.spring.r_chan.r_chan;
+
+import com.alexander.spring.r_chan.r_chan.config.WebConfig;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostDTO;
+import com.alexander.spring.r_chan.r_chan.entity.Post;
+import com.alexander.spring.r_chan.r_chan.entity.Section;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.alexander.spring.r_chan.r_chan.WireFixtures.PAGE_SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//CBOR y Smile a través de los conversores que deja registrados WebConfig, no de mappers sueltos
+public class BinaryFormatConvertersTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    //Como el mapper de Spring Boot: una propiedad desconocida no es un error. Los mappers binarios por defecto sí fallan
+    private final ObjectMapper json = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final List<HttpMessageConverter<?>> converters = registeredConverters();
+
+    @Test
+    public void replacesTheDefaultBinaryConverters() {
+        assertEquals(1, converters.stream().filter(JacksonCborHttpMessageConverter.class::isInstance).count());
+        assertEquals(1, converters.stream().filter(JacksonSmileHttpMessageConverter.class::isInstance).count());
+    }
+
+    @Test
+    public void binaryConvertersFollowTheAppMapper() throws IOException {
+        Map<String, Object> withUnknownField = Map.of("title", "Título", "unknownField", 1);
+        for (MediaType mediaType : List.of(MediaType.APPLICATION_CBOR, SMILE)) {
+            PostDTO post = (PostDTO) read(mediaType, PostDTO.class, write(mediaType, withUnknownField));
+            assertEquals("Título", post.getTitle(), mediaType.toString());
+        }
+    }
+
+    @Test
+    public void postsAndRepliesSurviveCborAndSmile() throws IOException {
+        PostDTO[] posts = posts();
+        RePostDTO[] replies = replies();
+        for (MediaType mediaType : List.of(MediaType.APPLICATION_CBOR, SMILE)) {
+            assertArrayEquals(posts, (PostDTO[]) read(mediaType, PostDTO[].class, write(mediaType, posts)));
+            assertArrayEquals(replies, (RePostDTO[]) read(mediaType, RePostDTO[].class, write(mediaType, replies)));
+        }
+    }
+
+    @Test
+    public void binaryFormatsAreSmallerThanJson() throws IOException {
+        PostDTO[] posts = posts();
+        RePostDTO[] replies = replies();
+        for (MediaType mediaType : List.of(MediaType.APPLICATION_CBOR, SMILE)) {
+            assertSmaller(mediaType + " posts", json.writeValueAsBytes(posts).length, write(mediaType, posts).length);
+            assertSmaller(mediaType + " replies", json.writeValueAsBytes(replies).length, write(mediaType, replies).length);
+        }
+    }
+
+    //Lo que Spring registra por su cuenta cuando los formatos están en el classpath, después de pasar por WebConfig
+    private List<HttpMessageConverter<?>> registeredConverters() {
+        List<HttpMessageConverter<?>> registered = new ArrayList<>(List.of(
+                new JacksonCborHttpMessageConverter(), new JacksonSmileHttpMessageConverter()));
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("objectMapper", json));
+        new WebConfig(beans.getBeanProvider(ObjectMapper.class)).extendMessageConverters(registered);
+        return registered;
+    }
+
+    private PostDTO[] posts() {
+        Section section = WireFixtures.section();
+        PostDTO[] posts = new PostDTO[PAGE_SIZE];
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            posts[i] = new PostDTO(WireFixtures.post(section, i), i);
+        }
+        return posts;
+    }
+
+    private RePostDTO[] replies() {
+        Post parent = WireFixtures.post(WireFixtures.section(), 0);
+        RePostDTO[] replies = new RePostDTO[PAGE_SIZE];
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            replies[i] = new RePostDTO(WireFixtures.rePost(parent, i));
+        }
+        return replies;
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> converterFor(MediaType mediaType, Class<?> type) {
+        return (HttpMessageConverter<Object>) converters.stream()
+                .filter(converter -> converter.canWrite(type, mediaType))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private byte[] write(MediaType mediaType, Object value) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converterFor(mediaType, value.getClass()).write(value, mediaType, output);
+        return output.getBodyAsBytes();
+    }
+
+    private Object read(MediaType mediaType, Class<?> type, byte[] bytes) throws IOException {
+        MockHttpInputMessage input = new MockHttpInputMessage(bytes);
+        input.getHeaders().setContentType(mediaType);
+        return converterFor(mediaType, type).read(type, input);
+    }
+
+    private void assertSmaller(String label, int json, int binary) {
+        assertTrue(binary < json, label + ": " + binary + " bytes, JSON " + json + " bytes");
+    }
+}
@@ -0,0 +1,58 @@
+package com.alexander.spring.r_chan.r_chan;
+
+import com.alexander.spring.r_chan.r_chan.services.publications.posters.PosterSketch;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PosterSketchTest {
+
+    @Test
+    public void topBitsPickTheRegisterAndTheRestGiveTheRank() {
+        //Registro 42; tras los 8 bits del índice vienen 5 ceros y un 1 -> rango 6
+        long hash = (42L << 56) | (1L << 50);
+        byte[] sketch = PosterSketch.add(null, hash);
+
+        assertEquals(PosterSketch.SIZE, sketch.length);
+        for (int i = 0; i < PosterSketch.SIZE; i++) {
+            assertEquals(i == 42 ? 6 : 0, sketch[i], "register " + i);
+        }
+
+        //Un rango menor no baja el registro y se reutiliza el mismo array
+        assertSame(sketch, PosterSketch.add(sketch, (42L << 56) | (1L << 55)));
+        assertEquals(6, sketch[42]);
+
+        //Sin ningún 1 después del índice el rango se limita a 57
+        PosterSketch.add(sketch, 255L << 56);
+        assertEquals(57, sketch[255]);
+    }
+
+    @Test
+    public void repeatedPostersCountOnce() {
+        byte[] sketch = null;
+        for (int i = 0; i < 100; i++) {
+            sketch = PosterSketch.add(sketch, 0x9E3779B97F4A7C15L);
+        }
+        assertEquals(1, PosterSketch.estimate(sketch));
+        assertEquals(0, PosterSketch.estimate(null));
+    }
+
+    @Test
+    public void estimateStaysWithinErrorBound() {
+        //256 registros: error típico ≈ 6.5%; se admiten tres desviaciones
+        SplittableRandom random = new SplittableRandom(25);
+        for (int cardinality : new int[]{10, 100, 1_000, 10_000, 100_000}) {
+            byte[] sketch = null;
+            for (int i = 0; i < cardinality; i++) {
+                sketch = PosterSketch.add(sketch, random.nextLong());
+            }
+            double error = Math.abs(PosterSketch.estimate(sketch) - cardinality) / (double) cardinality;
+            assertTrue(error <= 3 * 1.04 / Math.sqrt(PosterSketch.SIZE),
+                    cardinality + " posters estimated as " + PosterSketch.estimate(sketch));
+        }
+    }
+}
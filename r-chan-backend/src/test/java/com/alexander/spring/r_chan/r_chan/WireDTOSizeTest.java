@@ -0,0 +1,59 @@
+package com.alexander.spring.r_chan.r_chan;
+
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.PostSummaryDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostDTO;
+import com.alexander.spring.r_chan.r_chan.dtos.publications.RePostSummaryDTO;
+import com.alexander.spring.r_chan.r_chan.entity.Post;
+import com.alexander.spring.r_chan.r_chan.entity.RePost;
+import com.alexander.spring.r_chan.r_chan.entity.Section;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.alexander.spring.r_chan.r_chan.WireFixtures.PAGE_SIZE;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Las vistas compactas de los listados deben pesar menos por página que los DTOs completos
+public class WireDTOSizeTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void summariesAreSmallerThanFullDTOs() {
+        Section section = WireFixtures.section();
+
+        List<PostDTO> posts = new ArrayList<>();
+        List<PostSummaryDTO> postSummaries = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Post post = WireFixtures.post(section, i);
+            posts.add(new PostDTO(post, 12));
+            postSummaries.add(new PostSummaryDTO(post.getId(), post.getNumber(), SectionEnum.GENERAL, post.getTitle(),
+                    Post.previewOf(post.getContent()), post.getFileUrl(), post.getFileType(),
+                    post.getFileStatus(), 12, post.getCreatedDate(), post.getLastBumpedAt(), 9));
+        }
+
+        Post parent = WireFixtures.post(section, 0);
+        List<RePostDTO> replies = new ArrayList<>();
+        List<RePostSummaryDTO> replySummaries = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            RePost rePost = WireFixtures.rePost(parent, i);
+            replies.add(new RePostDTO(rePost));
+            replySummaries.add(new RePostSummaryDTO(rePost));
+        }
+
+        assertSmaller("Posts", bytes(posts), bytes(postSummaries));
+        assertSmaller("Replies", bytes(replies), bytes(replySummaries));
+    }
+
+    private int bytes(Object value) {
+        return objectMapper.writeValueAsBytes(value).length;
+    }
+
+    private void assertSmaller(String label, int full, int summary) {
+        assertTrue(summary < full, label + ": summary " + summary + " bytes, full " + full + " bytes");
+    }
+}
@@ -0,0 +1,64 @@
+package com.alexander.spring.r_chan.r_chan;
+
+import com.alexander.spring.r_chan.r_chan.entity.Post;
+import com.alexander.spring.r_chan.r_chan.entity.RePost;
+import com.alexander.spring.r_chan.r_chan.entity.Section;
+import com.alexander.spring.r_chan.r_chan.enums.ApprovalStatus;
+import com.alexander.spring.r_chan.r_chan.enums.FileStatus;
+import com.alexander.spring.r_chan.r_chan.enums.FileType;
+import com.alexander.spring.r_chan.r_chan.enums.SectionEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//Una página de posts y respuestas parecida a la real, compartida por los tests de formato y tamaño de los DTOs
+final class WireFixtures {
+
+    static final int PAGE_SIZE = 20;
+
+    private WireFixtures() {
+    }
+
+    static Section section() {
+        Section section = new Section();
+        section.setId(UUID.randomUUID());
+        section.setSectionType(SectionEnum.GENERAL);
+        section.setPostCount(1500);
+        section.setCreatedDate(LocalDateTime.now());
+        section.setUpdatedDate(LocalDateTime.now());
+        return section;
+    }
+
+    //Contenido más largo que el extracto, con acentos, emoji y una cita
+    static Post post(Section section, int i) {
+        Post post = new Post();
+        post.setId(UUID.randomUUID());
+        post.setNumber(1000L + i);
+        post.setSection(section);
+        post.setTitle("Título del post " + i);
+        post.setContent("Contenido con acentos, emoji 😀 y >>" + (999 + i) + " " + "x".repeat(200));
+        post.setFileUrl(UUID.randomUUID() + "_imagen.png");
+        post.setFileType(FileType.PNG);
+        post.setFileStatus(FileStatus.VISIBLE);
+        post.setApprovalStatus(ApprovalStatus.APPROVED);
+        post.setReplyCount(12);
+        post.setCreatedDate(LocalDateTime.now());
+        post.setUpdatedDate(LocalDateTime.now());
+        post.setLastBumpedAt(LocalDateTime.now());
+        return post;
+    }
+
+    //Algunas respuestas sin texto (solo imagen) para cubrir los null
+    static RePost rePost(Post post, int i) {
+        RePost rePost = new RePost();
+        rePost.setId(UUID.randomUUID());
+        rePost.setNumber(2000L + i);
+        rePost.setPost(post);
+        rePost.setContent(i % 5 == 4 ? null : "Respuesta número " + i + " al hilo, con algo de texto para que sea realista.");
+        rePost.setFileStatus(FileStatus.UNKNOWN);
+        rePost.setApprovalStatus(ApprovalStatus.AUTO_APPROVED);
+        rePost.setCreatedDate(LocalDateTime.now());
+        rePost.setUpdatedDate(LocalDateTime.now());
+        return rePost;
+    }
+}